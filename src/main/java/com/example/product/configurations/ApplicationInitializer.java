@@ -11,7 +11,6 @@ import com.example.product.dtos.UserDto;
 import com.example.product.models.User;
 import com.example.product.repositories.RoleRepository;
 import com.example.product.repositories.UserRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,8 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 class ApplicationInitializer {
 
     @Bean
-    ApplicationRunner runner(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder encoder,
-            ObjectMapper objectMapper) {
+    ApplicationRunner runner(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder encoder) {
         return args -> {
             User user = new User();
             user.setFirstName("John");
@@ -31,7 +29,7 @@ class ApplicationInitializer {
             user.setRoles(roleRepository.findAll().stream().collect(Collectors.toSet()));
 
             var savedUser = UserDto.from(userRepository.save(user));
-            log.info("user: {}", objectMapper.writeValueAsString(savedUser));
+            log.info("user: {} roles: {}", savedUser.getUsername(), savedUser.getRoles());
         };
     }
 }
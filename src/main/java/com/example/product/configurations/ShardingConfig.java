@@ -0,0 +1,84 @@
+package com.example.product.configurations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ReplicaRoutingDataSource;
+import com.example.product.sharding.ShardRoutingDataSource;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    ShardRoutingDataSource dataSource(final DataSourceProperties dataSourceProperties,
+            final ShardingProperties shardingProperties) {
+        final var primaries = new ArrayList<DataSource>();
+        final var replicaNodes = new ArrayList<List<ShardingProperties.Node>>();
+
+        if (shardingProperties.getShards().isEmpty()) {
+            primaries.add(dataSourceProperties.initializeDataSourceBuilder().build());
+            replicaNodes.add(shardingProperties.getReplicas());
+        } else {
+            shardingProperties.getShards().forEach(shard -> {
+                primaries.add(build(shard));
+                replicaNodes.add(shard.getReplicas());
+            });
+        }
+
+        // Hibernate creates the schema on shard 0 only; the other shards get the products table here.
+        for (int shard = 1; shard < primaries.size(); shard++) {
+            initializeShard(shard, primaries.get(shard));
+        }
+
+        // Read-only transactions are sent to the replicas: the lazy proxy defers taking a connection until
+        // the first statement, by which time the transaction has marked it read-only.
+        final var shards = new ArrayList<DataSource>();
+        final var replicas = new ArrayList<ReplicaRoutingDataSource>();
+        for (int shard = 0; shard < primaries.size(); shard++) {
+            final var proxy = new LazyConnectionDataSourceProxy(primaries.get(shard));
+            if (!replicaNodes.get(shard).isEmpty()) {
+                final var replica = new ReplicaRoutingDataSource(primaries.get(shard),
+                        replicaNodes.get(shard).stream().map(ShardingConfig::build).toList(),
+                        shardingProperties.getReplicaSelection());
+                proxy.setReadOnlyDataSource(replica);
+                replicas.add(replica);
+            }
+            shards.add(proxy);
+        }
+
+        return new ShardRoutingDataSource(shards, replicas);
+    }
+
+    private static DataSource build(final ShardingProperties.Node node) {
+        return DataSourceBuilder.create()
+                .url(node.getUrl())
+                .username(node.getUsername())
+                .password(node.getPassword())
+                .build();
+    }
+
+    private static void initializeShard(final int shard, final DataSource dataSource) {
+        new ResourceDatabasePopulator(new ClassPathResource("shard-schema.sql")).execute(dataSource);
+
+        final var jdbcTemplate = new JdbcTemplate(dataSource);
+        final var maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class);
+        jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH "
+                + Math.max(ProductShards.firstId(shard), maxId + 1));
+    }
+}
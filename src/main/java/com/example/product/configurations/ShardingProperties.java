@@ -0,0 +1,38 @@
+package com.example.product.configurations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.example.product.sharding.ReplicaRoutingDataSource;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Product shards, in shard order. When empty the service runs on a single
+ * shard backed by {@code spring.datasource}, replicated by {@code replicas}.
+ * Shard 0 also holds users, roles and refresh tokens.
+ */
+@Data
+@ConfigurationProperties(prefix = "product.sharding")
+public class ShardingProperties {
+
+    private List<Shard> shards = new ArrayList<>();
+    private List<Node> replicas = new ArrayList<>();
+    private ReplicaRoutingDataSource.Selection replicaSelection = ReplicaRoutingDataSource.Selection.ROUND_ROBIN;
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Shard extends Node {
+        private List<Node> replicas = new ArrayList<>();
+    }
+}
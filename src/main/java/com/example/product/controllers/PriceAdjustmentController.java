@@ -0,0 +1,49 @@
+package com.example.product.controllers;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.product.dtos.PriceAdjustmentJob;
+import com.example.product.dtos.PriceAdjustmentRequest;
+import com.example.product.services.PriceAdjustmentService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/v1/product/adjustments")
+public class PriceAdjustmentController {
+
+    private final PriceAdjustmentService priceAdjustmentService;
+
+    @PostMapping
+    public ResponseEntity<PriceAdjustmentJob> start(
+            @RequestBody(required = true) @NonNull @Valid PriceAdjustmentRequest adjustmentRequest) {
+        final var job = priceAdjustmentService.start(adjustmentRequest);
+        return ResponseEntity.status(job.isDryRun() ? HttpStatus.OK : HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping(path = "/{id}")
+    public ResponseEntity<PriceAdjustmentJob> read(@PathVariable(required = true) UUID id) {
+        return ResponseEntity.ok(priceAdjustmentService.get(id));
+    }
+
+    @DeleteMapping(path = "/{id}")
+    public ResponseEntity<PriceAdjustmentJob> cancel(@PathVariable(required = true) UUID id) {
+        return ResponseEntity.accepted().body(priceAdjustmentService.cancel(id));
+    }
+
+}
@@ -1,9 +1,17 @@
 package com.example.product.controllers;
 
+import java.util.List;
+
 import com.example.product.dtos.ProductDto;
+import com.example.product.dtos.ProductLookupRequest;
+import com.example.product.dtos.ProductLookupResponse;
 import com.example.product.models.Product;
+import com.example.product.models.ProductField;
+import com.example.product.models.ProductSortField;
 import com.example.product.services.ProductService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import org.springframework.data.domain.Page;
@@ -26,14 +34,18 @@ public class ProductController {
 
     @GetMapping(path = "/list")
     @ResponseStatus(HttpStatus.ACCEPTED)
-    public ResponseEntity<Page<ProductDto>> getProducts(
+    public ResponseEntity<Page<?>> getProducts(
             @RequestParam(required = false, defaultValue = "0") int pageNumber,
             @RequestParam(required = false, defaultValue = "5") int pageSize,
             @RequestParam(required = false, defaultValue = "id") String sort,
-            @RequestParam(required = false, defaultValue = "ASC") String direction) {
-        return ResponseEntity.ok(productService
-                .all(PageRequest.of(pageNumber, pageSize, Sort.by(Direction.fromString(direction), sort)))
-                .map(Product::dto));
+            @RequestParam(required = false, defaultValue = "ASC") String direction,
+            @RequestParam(required = false) String fields) {
+        final var pageRequest = PageRequest.of(pageNumber, pageSize, Sort.by(Direction.fromString(direction),
+                ProductSortField.from(sort).getProperty()));
+        if (fields != null) {
+            return ResponseEntity.ok(productService.all(pageRequest, ProductField.parse(fields)));
+        }
+        return ResponseEntity.ok(productService.all(pageRequest).map(Product::dto));
     }
 
     @GetMapping(path = "/{id}")
@@ -42,6 +54,27 @@ public class ProductController {
         return ResponseEntity.ok(productService.get(id).dto());
     }
 
+    @GetMapping(path = "/sku/{sku}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResponseEntity<ProductDto> readBySku(@PathVariable(required = true) String sku) {
+        return ResponseEntity.ok(productService.getBySku(sku).dto());
+    }
+
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResponseEntity<ProductLookupResponse> readAll(@RequestParam(required = true) @Size(max = ProductLookupRequest.MAX_KEYS,
+            message = "ids must contain at most " + ProductLookupRequest.MAX_KEYS + " elements")
+            List<@NotNull(message = "ids must not contain null") Long> ids) {
+        return ResponseEntity.ok(productService.lookup(ids, List.of()));
+    }
+
+    @PostMapping(path = "/lookup")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResponseEntity<ProductLookupResponse> lookup(
+            @RequestBody(required = true) @NonNull @Valid ProductLookupRequest lookupRequest) {
+        return ResponseEntity.ok(productService.lookup(lookupRequest.getIds(), lookupRequest.getSkus()));
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<ProductDto> create(@RequestBody(required = true) @NonNull @Valid ProductDto productDto) {
@@ -11,6 +11,11 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.example.product.dtos.ErrorResponseBody;
+import com.example.product.exceptions.DuplicateSkuException;
+import com.example.product.exceptions.ProductNotFoundException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 
 @RestControllerAdvice
 public class ProductControllerAdvice {
@@ -22,6 +27,13 @@ public class ProductControllerAdvice {
                 .status(HttpStatus.NOT_FOUND).msg("HTTP 404 Not Found").build(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ProductNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public final ResponseEntity<ErrorResponseBody> productNotFound(final ProductNotFoundException e) {
+        return new ResponseEntity<>(ErrorResponseBody.builder().code(HttpStatus.NOT_FOUND.value())
+                .status(HttpStatus.NOT_FOUND).msg(e.getMessage()).build(), HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public final ResponseEntity<ErrorResponseBody> badREquest(final MethodArgumentNotValidException e) {
@@ -30,6 +42,29 @@ public class ProductControllerAdvice {
                 .status(HttpStatus.BAD_REQUEST).msg(msg).build(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(DuplicateSkuException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public final ResponseEntity<ErrorResponseBody> conflict(final DuplicateSkuException e) {
+        return new ResponseEntity<>(ErrorResponseBody.builder().code(HttpStatus.CONFLICT.value())
+                .status(HttpStatus.CONFLICT).msg(e.getMessage()).build(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public final ResponseEntity<ErrorResponseBody> constraintViolation(final ConstraintViolationException e) {
+        final var msg = String.join(", ",
+                e.getConstraintViolations().stream().map(ConstraintViolation::getMessage).toList());
+        return new ResponseEntity<>(ErrorResponseBody.builder().code(HttpStatus.BAD_REQUEST.value())
+                .status(HttpStatus.BAD_REQUEST).msg(msg).build(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public final ResponseEntity<ErrorResponseBody> illegalArgument(final IllegalArgumentException e) {
+        return new ResponseEntity<>(ErrorResponseBody.builder().code(HttpStatus.BAD_REQUEST.value())
+                .status(HttpStatus.BAD_REQUEST).msg(e.getMessage()).build(), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Throwable.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public final ResponseEntity<ErrorResponseBody> serverError(final Throwable e) {
@@ -0,0 +1,37 @@
+package com.example.product.controllers;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.product.dtos.ShardRebalanceReport;
+import com.example.product.models.ProductMove;
+import com.example.product.services.ShardRebalancer;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/shards")
+public class ShardController {
+
+    private final ShardRebalancer shardRebalancer;
+
+    @PostMapping("/rebalance")
+    public ResponseEntity<ShardRebalanceReport> rebalance() {
+        return ResponseEntity.ok(shardRebalancer.rebalance());
+    }
+
+    @GetMapping("/moves")
+    public ResponseEntity<List<ProductMove>> moves(
+            @RequestParam(required = false, defaultValue = "0") long afterOldId,
+            @RequestParam(required = false, defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(shardRebalancer.moves(afterOldId, limit));
+    }
+
+}
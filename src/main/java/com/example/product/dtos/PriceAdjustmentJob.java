@@ -0,0 +1,40 @@
+package com.example.product.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PriceAdjustmentJob implements Serializable {
+
+    public enum Status {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private UUID id;
+    private Status status;
+    private boolean dryRun;
+    private PriceAdjustmentRequest request;
+    private int chunks;
+    private int chunksDone;
+    private long matched;
+    private long updated;
+    private List<Preview> preview;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    @Data
+    @Builder
+    public static class Preview implements Serializable {
+        private long id;
+        private String sku;
+        private double before;
+        private double after;
+    }
+}
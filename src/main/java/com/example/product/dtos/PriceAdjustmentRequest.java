@@ -0,0 +1,67 @@
+package com.example.product.dtos;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Sets {@code target} to {@code operation(target, value)} on every product
+ * matching the optional bounds, which are all exclusive.
+ */
+@Data
+public class PriceAdjustmentRequest implements Serializable {
+
+    public enum Target {
+        PRICE, TAX_RATE
+    }
+
+    public enum Operation {
+        SET, ADD, MULTIPLY, PERCENT
+    }
+
+    @NotNull(message = "target must be PRICE or TAX_RATE")
+    private Target target;
+
+    @NotNull(message = "operation must be SET, ADD, MULTIPLY or PERCENT")
+    private Operation operation;
+
+    @NotNull(message = "value must be a decimal number")
+    private Double value;
+
+    private Double priceAbove;
+    private Double priceBelow;
+    private Double taxRateAbove;
+    private Double taxRateBelow;
+
+    private boolean dryRun;
+
+    @JsonIgnore
+    @AssertTrue(message = "value must be a finite number")
+    public boolean isValueFinite() {
+        return value == null || Double.isFinite(value);
+    }
+
+    /**
+     * Multiplier of the linear form {@code target * factor + delta} the
+     * operation is applied as.
+     */
+    public double factor() {
+        return switch (operation) {
+            case SET -> 0;
+            case ADD -> 1;
+            case MULTIPLY -> value;
+            case PERCENT -> 1 + value / 100;
+        };
+    }
+
+    public double delta() {
+        return switch (operation) {
+            case SET, ADD -> value;
+            case MULTIPLY, PERCENT -> 0;
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.product.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ProductLookupRequest implements Serializable {
+
+    public static final int MAX_KEYS = 100;
+
+    @Size(max = MAX_KEYS, message = "ids must contain at most " + MAX_KEYS + " elements")
+    private List<@NotNull(message = "ids must not contain null") Long> ids;
+
+    @Size(max = MAX_KEYS, message = "skus must contain at most " + MAX_KEYS + " elements")
+    private List<@NotBlank(message = "skus must not contain blank values") String> skus;
+}
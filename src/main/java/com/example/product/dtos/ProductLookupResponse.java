@@ -0,0 +1,16 @@
+package com.example.product.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductLookupResponse implements Serializable {
+
+    private List<ProductDto> products;
+    private List<Long> missingIds;
+    private List<String> missingSkus;
+}
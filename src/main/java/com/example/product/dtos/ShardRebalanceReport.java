@@ -0,0 +1,20 @@
+package com.example.product.dtos;
+
+import java.io.Serializable;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Totals of one rebalance run. The new id of every moved product is recorded
+ * as a {@link com.example.product.models.ProductMove}, listed by
+ * {@code GET /v1/shards/moves}.
+ */
+@Data
+@Builder
+public class ShardRebalanceReport implements Serializable {
+
+    private int shards;
+    private long scanned;
+    private long moved;
+}
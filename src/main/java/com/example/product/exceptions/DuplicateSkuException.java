@@ -0,0 +1,13 @@
+package com.example.product.exceptions;
+
+public class DuplicateSkuException extends ProductServiceGenericException {
+
+    public DuplicateSkuException(final String sku) {
+        super("Product with sku " + sku + " already exists");
+    }
+
+    public DuplicateSkuException(final String sku, final Throwable error) {
+        super("Product with sku " + sku + " already exists", error);
+    }
+
+}
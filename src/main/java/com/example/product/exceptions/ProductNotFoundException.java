@@ -0,0 +1,12 @@
+package com.example.product.exceptions;
+
+/**
+ * Expected outcome of a lookup, so it skips stack trace capture.
+ */
+public class ProductNotFoundException extends ProductServiceGenericException {
+
+    public ProductNotFoundException(final String key, final Object value) {
+        super("Product with " + key + " " + value + " not found", null, false, false);
+    }
+
+}
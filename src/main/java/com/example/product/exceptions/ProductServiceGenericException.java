@@ -18,4 +18,9 @@ public class ProductServiceGenericException extends RuntimeException {
         super(message, error);
     }
 
+    protected ProductServiceGenericException(final String message, final Throwable error,
+            final boolean enableSuppression, final boolean writableStackTrace) {
+        super(message, error, enableSuppression, writableStackTrace);
+    }
+
 }
@@ -0,0 +1,156 @@
+package com.example.product.logging;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounded buffer between request threads and the {@code audit} logger. Request
+ * threads only enqueue; a single writer thread drains the queue in batches
+ * and logs each batch as one event holding one JSON line per record, which
+ * the {@code AUDIT} appender in logback-spring.xml writes out as is.
+ */
+@Component
+public class AuditLog {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("audit");
+
+    private final BlockingQueue<AuditRecord> queue;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Counter written;
+    private final Counter dropped;
+    private Thread writer;
+
+    public AuditLog(final MeterRegistry meterRegistry,
+            @Value("${product.audit.queue-size:8192}") final int queueSize,
+            @Value("${product.audit.batch-size:256}") final int batchSize,
+            @Value("${product.audit.overflow:DROP}") final OverflowPolicy overflowPolicy,
+            @Value("${product.audit.block-timeout:PT0.01S}") final Duration blockTimeout) {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.written = Counter.builder("audit.records").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("audit.records").tag("result", "dropped").register(meterRegistry);
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public void append(final AuditRecord record) {
+        if (!AUDIT.isInfoEnabled()) {
+            return;
+        }
+
+        var accepted = queue.offer(record);
+        if (!accepted && overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(record, blockTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!accepted) {
+            dropped.increment();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drain() {
+        final var batch = new ArrayList<AuditRecord>(batchSize);
+        final var lines = new StringBuilder(256 * batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            write(batch, lines);
+        }
+        queue.drainTo(batch);
+        write(batch, lines);
+    }
+
+    private void write(final ArrayList<AuditRecord> batch, final StringBuilder lines) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        lines.setLength(0);
+        for (final AuditRecord record : batch) {
+            if (!lines.isEmpty()) {
+                lines.append('\n');
+            }
+            lines.append("{\"timestamp\":").append(record.timestamp())
+                    .append(",\"principal\":");
+            appendString(lines, record.principal());
+            lines.append(",\"method\":");
+            appendString(lines, record.method());
+            lines.append(",\"endpoint\":");
+            appendString(lines, record.endpoint());
+            lines.append(",\"status\":").append(record.status())
+                    .append(",\"latencyMicros\":").append(TimeUnit.NANOSECONDS.toMicros(record.latencyNanos()))
+                    .append(",\"sqlCount\":").append(record.sqlCount())
+                    .append('}');
+        }
+        AUDIT.info(lines.toString());
+        written.increment(batch.size());
+        batch.clear();
+    }
+
+    private static void appendString(final StringBuilder line, final String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.product.logging;
+
+/**
+ * One served request. Captured as raw values on the request thread and only
+ * rendered by {@link AuditLog}'s writer thread.
+ */
+public record AuditRecord(long timestamp, String principal, String method, String endpoint, int status,
+        long latencyNanos, int sqlCount) {
+}
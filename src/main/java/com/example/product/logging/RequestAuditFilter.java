@@ -0,0 +1,64 @@
+package com.example.product.logging;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Audits every request, including those the security filter chain rejects, so
+ * it runs ahead of that chain and its latency covers token decoding. The chain
+ * clears the security context before returning, so {@link #principalRecorder()}
+ * notes the principal from inside it.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
+public class RequestAuditFilter extends OncePerRequestFilter {
+
+    private static final String PRINCIPAL_ATTRIBUTE = RequestAuditFilter.class.getName() + ".principal";
+
+    private final AuditLog auditLog;
+
+    /**
+     * Filter for the security chain, placed after authentication, that keeps
+     * the authenticated principal for the audit record.
+     */
+    public static Filter principalRecorder() {
+        return (request, response, chain) -> {
+            final var authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null) {
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, authentication.getName());
+            }
+            chain.doFilter(request, response);
+        };
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        final var start = System.nanoTime();
+        SqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            auditLog.append(new AuditRecord(System.currentTimeMillis(),
+                    (String) request.getAttribute(PRINCIPAL_ATTRIBUTE),
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    response.getStatus(),
+                    System.nanoTime() - start,
+                    SqlStatementCounter.count()));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.product.logging;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the statements Hibernate prepares for the current request, registered
+ * through {@code hibernate.session_factory.statement_inspector}. Work handed to
+ * other threads counts towards the request when wrapped in {@link #propagate}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Override
+    public String inspect(final String sql) {
+        COUNT.get().incrementAndGet();
+        return sql;
+    }
+
+    /**
+     * Starts a new count, so work still running for an earlier request on
+     * another thread cannot add to it.
+     */
+    public static void reset() {
+        COUNT.set(new AtomicInteger());
+    }
+
+    public static int count() {
+        return COUNT.get().get();
+    }
+
+    /**
+     * Wraps {@code work} so the statements it runs, on whichever thread, count
+     * towards the calling thread's current count.
+     */
+    public static <T> Supplier<T> propagate(final Supplier<T> work) {
+        final var count = COUNT.get();
+        return () -> {
+            final var previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                return work.get();
+            } finally {
+                COUNT.set(previous);
+            }
+        };
+    }
+}
@@ -9,18 +9,23 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "ux_products_sku", columnList = "sku", unique = true),
+        @Index(name = "ix_products_name", columnList = "name"),
+        @Index(name = "ix_products_price", columnList = "price"),
+        @Index(name = "ix_products_tax_rate", columnList = "tax_rate") })
 public class Product {
     @Id
     @Column(name = "id")
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @Column(name = "sku")
+    @Column(name = "sku", nullable = false)
     private String sku;
     @Column(name = "name")
     private String name;
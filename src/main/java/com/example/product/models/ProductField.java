@@ -0,0 +1,56 @@
+package com.example.product.models;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import lombok.Getter;
+
+/**
+ * Product fields a client can ask for with {@code fields=}, by their JSON name
+ * as serialized in {@link com.example.product.dtos.ProductDto}.
+ */
+@Getter
+public enum ProductField {
+
+    ID("id", "id"),
+    SKU("sku", "sku"),
+    NAME("productName", "name"),
+    DESCRIPTION("description", "description"),
+    PRICE("price", "price"),
+    TAX_RATE("taxRate", "taxRate");
+
+    private final String jsonName;
+    private final String property;
+
+    ProductField(final String jsonName, final String property) {
+        this.jsonName = jsonName;
+        this.property = property;
+    }
+
+    public static ProductField fromProperty(final String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown product property \"" + property + "\""));
+    }
+
+    public static Set<ProductField> parse(final String fields) {
+        final var result = EnumSet.noneOf(ProductField.class);
+        for (final String name : fields.split(",")) {
+            final var trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field \"" + trimmed
+                            + "\", use any of " + Arrays.stream(values()).map(ProductField::getJsonName).toList())));
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.product.models;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * New id of a product the shard rebalancer moved, keyed by its previous id.
+ * Kept on the default shard.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_moves")
+public class ProductMove implements Serializable {
+
+    @Id
+    @Column(updatable = false, nullable = false)
+    private Long oldId;
+
+    @Column(nullable = false)
+    private Long newId;
+
+    @Column(nullable = false)
+    private Instant movedAt;
+
+}
@@ -0,0 +1,56 @@
+package com.example.product.models;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import lombok.Getter;
+
+/**
+ * Fields the product list can be sorted by. Every field is backed by a database
+ * index; the {@code presorted} ones are also kept in memory by
+ * {@link com.example.product.services.ProductSortIndex}.
+ */
+@Getter
+public enum ProductSortField {
+
+    ID("id", true, Product::getId),
+    SKU("sku", false, Product::getSku),
+    NAME("name", true, Product::getName),
+    PRICE("price", true, Product::getPrice),
+    TAX_RATE("taxRate", false, Product::getTaxRate);
+
+    private final String property;
+    private final boolean presorted;
+    private final Comparator<Product> comparator;
+
+    <T extends Comparable<? super T>> ProductSortField(final String property, final boolean presorted,
+            final Function<Product, T> getter) {
+        this.property = property;
+        this.presorted = presorted;
+        this.comparator = Comparator.comparing(getter, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Comparator equivalent to ordering by {@code sort} with id as the final
+     * tie-breaker.
+     */
+    public static Comparator<Product> comparator(final Sort sort) {
+        var comparator = Comparator.<Product>comparingInt(product -> 0);
+        for (final Sort.Order order : sort) {
+            final var field = from(order.getProperty()).getComparator();
+            comparator = comparator.thenComparing(order.isAscending() ? field : field.reversed());
+        }
+        return sort.getOrderFor(ID.property) == null ? comparator.thenComparing(ID.comparator) : comparator;
+    }
+
+    public static ProductSortField from(final String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Sorting by \"" + property
+                        + "\" is not supported, use one of " + Arrays.stream(values()).map(ProductSortField::getProperty).toList()));
+    }
+}
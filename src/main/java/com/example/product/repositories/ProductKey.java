@@ -0,0 +1,8 @@
+package com.example.product.repositories;
+
+public interface ProductKey {
+
+    Long getId();
+
+    String getSku();
+}
@@ -0,0 +1,15 @@
+package com.example.product.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.product.models.ProductMove;
+
+@Repository
+public interface ProductMoveRepository extends JpaRepository<ProductMove, Long> {
+
+    List<ProductMove> findByOldIdGreaterThanOrderByOldId(Long oldId, Limit limit);
+}
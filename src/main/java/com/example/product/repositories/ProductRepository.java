@@ -1,10 +1,66 @@
 package com.example.product.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import com.example.product.models.Product;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    String ADJUSTMENT_FILTER = "(:priceAbove is null or p.price > :priceAbove)"
+            + " and (:priceBelow is null or p.price < :priceBelow)"
+            + " and (:taxRateAbove is null or p.taxRate > :taxRateAbove)"
+            + " and (:taxRateBelow is null or p.taxRate < :taxRateBelow)";
+
+    Optional<Product> findBySku(String sku);
+
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    <T> List<T> findByIdGreaterThanOrderById(Long id, Limit limit, Class<T> type);
+
+    @Query("select min(p.id) from Product p")
+    Optional<Long> findMinId();
+
+    @Query("select max(p.id) from Product p")
+    Optional<Long> findMaxId();
+
+    @Query("select count(p) from Product p where " + ADJUSTMENT_FILTER)
+    long countAdjustable(Double priceAbove, Double priceBelow, Double taxRateAbove, Double taxRateBelow);
+
+    @Query("select p.id from Product p where p.id between :fromId and :toId and " + ADJUSTMENT_FILTER)
+    List<Long> findAdjustableIds(Long fromId, Long toId, Double priceAbove, Double priceBelow, Double taxRateAbove,
+            Double taxRateBelow);
+
+    @Query("select p from Product p where " + ADJUSTMENT_FILTER + " order by p.id")
+    List<Product> findAdjustable(Double priceAbove, Double priceBelow, Double taxRateAbove, Double taxRateBelow,
+            Limit limit);
+
+    @Query("select count(p) from Product p where " + ADJUSTMENT_FILTER + " and p.price * :factor + :delta < 0")
+    long countNegativePrice(double factor, double delta, Double priceAbove, Double priceBelow, Double taxRateAbove,
+            Double taxRateBelow);
+
+    @Query("select count(p) from Product p where " + ADJUSTMENT_FILTER + " and p.taxRate * :factor + :delta < 0")
+    long countNegativeTaxRate(double factor, double delta, Double priceAbove, Double priceBelow, Double taxRateAbove,
+            Double taxRateBelow);
+
+    // The last condition keeps rows changed since the job checked its bounds from going negative.
+    @Modifying
+    @Query("update Product p set p.price = p.price * :factor + :delta where p.id in :ids and "
+            + ADJUSTMENT_FILTER + " and p.price * :factor + :delta >= 0")
+    int adjustPrice(double factor, double delta, Collection<Long> ids, Double priceAbove, Double priceBelow,
+            Double taxRateAbove, Double taxRateBelow);
+
+    @Modifying
+    @Query("update Product p set p.taxRate = p.taxRate * :factor + :delta where p.id in :ids and "
+            + ADJUSTMENT_FILTER + " and p.taxRate * :factor + :delta >= 0")
+    int adjustTaxRate(double factor, double delta, Collection<Long> ids, Double priceAbove, Double priceBelow,
+            Double taxRateAbove, Double taxRateBelow);
 }
@@ -0,0 +1,22 @@
+package com.example.product.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.example.product.models.ProductField;
+
+/**
+ * Column projections of products. Rows are plain value maps selected with a
+ * tuple query, so no entity is hydrated or tracked by the persistence context.
+ */
+public interface ProductRepositoryCustom {
+
+    Page<Map<ProductField, Object>> findAllProjected(Set<ProductField> fields, Pageable pageable);
+
+    List<Map<ProductField, Object>> findProjectedByIds(Set<ProductField> fields, Collection<Long> ids);
+}
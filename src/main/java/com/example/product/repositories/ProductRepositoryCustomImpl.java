@@ -0,0 +1,77 @@
+package com.example.product.repositories;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.example.product.models.Product;
+import com.example.product.models.ProductField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<ProductField, Object>> findAllProjected(final Set<ProductField> fields, final Pageable pageable) {
+        final var criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        final var query = criteriaBuilder.createTupleQuery();
+        final var root = query.from(Product.class);
+        select(query, root, fields);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        final var rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        final var count = criteriaBuilder.createQuery(Long.class);
+        count.select(criteriaBuilder.count(count.from(Product.class)));
+
+        return new PageImpl<>(rows.stream().map(row -> values(row, fields)).toList(), pageable,
+                entityManager.createQuery(count).getSingleResult());
+    }
+
+    @Override
+    public List<Map<ProductField, Object>> findProjectedByIds(final Set<ProductField> fields,
+            final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        final var query = entityManager.getCriteriaBuilder().createTupleQuery();
+        final var root = query.from(Product.class);
+        select(query, root, fields);
+        query.where(root.get(ProductField.ID.getProperty()).in(ids));
+
+        return entityManager.createQuery(query).getResultList().stream().map(row -> values(row, fields)).toList();
+    }
+
+    private static void select(final CriteriaQuery<Tuple> query, final Root<Product> root,
+            final Set<ProductField> fields) {
+        query.multiselect(fields.stream()
+                .<Selection<?>>map(field -> root.get(field.getProperty()).alias(field.name()))
+                .toList());
+    }
+
+    private static Map<ProductField, Object> values(final Tuple row, final Set<ProductField> fields) {
+        final var values = new EnumMap<ProductField, Object>(ProductField.class);
+        fields.forEach(field -> values.put(field, row.get(field.name())));
+        return values;
+    }
+}
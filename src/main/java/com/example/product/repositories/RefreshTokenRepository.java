@@ -6,11 +6,13 @@ import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.product.models.RefreshToken;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
 
+    @Transactional(readOnly = true)
     Optional<RefreshToken> findByIdAndExpiresAtAfter(UUID id, Instant date);
 }
\ No newline at end of file
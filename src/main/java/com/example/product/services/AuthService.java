@@ -8,6 +8,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.product.models.RefreshToken;
 import com.example.product.repositories.RefreshTokenRepository;
@@ -23,6 +24,7 @@ public class AuthService {
     private final TokenService tokenService;
     private final AuthenticationManager manager;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
 
     public Map<String, Object> authenticate(final Map<String, String> login) {
         return tokenService.authorize(manager.authenticate(
@@ -32,8 +34,13 @@ public class AuthService {
 
     public Map<String, Object> refreshToken(final UUID refreshToken) {
 
-        return refreshTokenRepository
-                .findByIdAndExpiresAtAfter(refreshToken, Instant.now()).map(RefreshToken::getUser).map(user -> {
+        final var now = Instant.now();
+
+        // A token issued moments ago may not have reached the replica yet, so a miss is retried on the primary.
+        return refreshTokenRepository.findByIdAndExpiresAtAfter(refreshToken, now)
+                .or(() -> transactionTemplate.execute(
+                        status -> refreshTokenRepository.findByIdAndExpiresAtAfter(refreshToken, now)))
+                .map(RefreshToken::getUser).map(user -> {
                     SecurityContextHolder.getContext()
                             .setAuthentication(new UsernamePasswordAuthenticationToken(user, null,
                                     user.getAuthorities()));
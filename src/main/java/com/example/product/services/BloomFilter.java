@@ -0,0 +1,91 @@
+package com.example.product.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over longs and strings. Uses double hashing over a
+ * 64-bit mixed hash to derive the probe positions.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    public BloomFilter(final long expectedInsertions, final double falsePositiveRate) {
+        final var n = Math.max(1, expectedInsertions);
+        final var bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void add(final long key) {
+        set(mix(key));
+    }
+
+    public void add(final String key) {
+        set(hash(key));
+    }
+
+    public boolean mightContain(final long key) {
+        return test(mix(key));
+    }
+
+    public boolean mightContain(final String key) {
+        return test(hash(key));
+    }
+
+    /**
+     * Probability of a false positive given the bits set so far.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitCount, hashCount);
+    }
+
+    private void set(final long hash) {
+        final var h1 = (int) hash;
+        final var h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            final var bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            final var mask = 1L << bit;
+            final var previous = words.getAndUpdate((int) (bit >>> 6), word -> word | mask);
+            if ((previous & mask) == 0) {
+                bitsSet.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean test(final long hash) {
+        final var h1 = (int) hash;
+        final var h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            final var bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(final String key) {
+        var hash = 0xcbf29ce484222325L;
+        for (final byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.product.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.example.product.dtos.PriceAdjustmentJob;
+import com.example.product.dtos.PriceAdjustmentRequest;
+import com.example.product.exceptions.ProductServiceGenericException;
+import com.example.product.models.Product;
+import com.example.product.repositories.ProductRepository;
+import com.example.product.sharding.ProductShards;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs bulk price and tax-rate adjustments as set-based UPDATEs over the
+ * matching ids of each id range. Each range is its own transaction, ranges run
+ * in parallel, and a cancelled job stops before its next range.
+ */
+@Slf4j
+@Service
+public class PriceAdjustmentService {
+
+    private static final int PREVIEW_SIZE = 20;
+    private static final int RETAINED_JOBS = 100;
+
+    private record Chunk(int shard, long fromId, long toId) {
+    }
+
+    private record ChunkResult(int updated, List<Product> products) {
+    }
+
+    private static class Job {
+        private final UUID id = UUID.randomUUID();
+        private final Instant startedAt = Instant.now();
+        private final PriceAdjustmentRequest request;
+        private final List<Chunk> chunks;
+        private final long matched;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicInteger chunksDone = new AtomicInteger();
+        private final AtomicLong updated = new AtomicLong();
+        private volatile PriceAdjustmentJob.Status status = PriceAdjustmentJob.Status.RUNNING;
+        private volatile List<PriceAdjustmentJob.Preview> preview;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(final PriceAdjustmentRequest request, final List<Chunk> chunks, final long matched) {
+            this.request = request;
+            this.chunks = chunks;
+            this.matched = matched;
+        }
+
+        private PriceAdjustmentJob dto() {
+            return PriceAdjustmentJob.builder()
+                    .id(id)
+                    .status(status)
+                    .dryRun(request.isDryRun())
+                    .request(request)
+                    .chunks(chunks.size())
+                    .chunksDone(chunksDone.get())
+                    .matched(matched)
+                    .updated(updated.get())
+                    .preview(preview)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final ProductShards shards;
+    private final List<ProductIndex> indexes;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final Map<UUID, Job> jobs = new LinkedHashMap<>();
+
+    public PriceAdjustmentService(final ProductRepository productRepository, final ProductShards shards,
+            final List<ProductIndex> indexes,
+            @Value("${product.adjustment.chunk-size:1000}") final int chunkSize,
+            @Value("${product.adjustment.parallelism:4}") final int parallelism) {
+        this.productRepository = productRepository;
+        this.shards = shards;
+        this.indexes = indexes;
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    public PriceAdjustmentJob start(final PriceAdjustmentRequest request) {
+        try {
+            final var price = request.getTarget() == PriceAdjustmentRequest.Target.PRICE;
+            final var negative = shards.readAllPrimary(shard -> price
+                    ? productRepository.countNegativePrice(request.factor(), request.delta(), request.getPriceAbove(),
+                            request.getPriceBelow(), request.getTaxRateAbove(), request.getTaxRateBelow())
+                    : productRepository.countNegativeTaxRate(request.factor(), request.delta(),
+                            request.getPriceAbove(), request.getPriceBelow(), request.getTaxRateAbove(),
+                            request.getTaxRateBelow()))
+                    .stream().mapToLong(Long::longValue).sum();
+            if (negative > 0) {
+                throw new IllegalArgumentException("Adjustment would make the " + request.getTarget()
+                        + " of " + negative + " matching products negative");
+            }
+
+            final var matched = shards.readAllPrimary(shard -> productRepository.countAdjustable(
+                    request.getPriceAbove(), request.getPriceBelow(), request.getTaxRateAbove(),
+                    request.getTaxRateBelow()))
+                    .stream().mapToLong(Long::longValue).sum();
+            final var job = new Job(request, chunks(), matched);
+            register(job);
+
+            if (request.isDryRun()) {
+                job.preview = preview(request);
+                job.status = PriceAdjustmentJob.Status.COMPLETED;
+                job.finishedAt = Instant.now();
+                return job.dto();
+            }
+
+            CompletableFuture.allOf(job.chunks.stream()
+                    .map(chunk -> CompletableFuture.runAsync(() -> process(job, chunk), executor))
+                    .toArray(CompletableFuture[]::new))
+                    .whenComplete((result, error) -> finish(job));
+            return job.dto();
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
+        }
+    }
+
+    public PriceAdjustmentJob get(final UUID id) {
+        synchronized (jobs) {
+            final var job = jobs.get(id);
+            if (job == null) {
+                throw new NoSuchElementException("Price adjustment job " + id + " not found");
+            }
+            return job.dto();
+        }
+    }
+
+    public PriceAdjustmentJob cancel(final UUID id) {
+        synchronized (jobs) {
+            final var job = jobs.get(id);
+            if (job == null) {
+                throw new NoSuchElementException("Price adjustment job " + id + " not found");
+            }
+            job.cancelled.set(true);
+            return job.dto();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<Chunk> chunks() {
+        final var ranges = shards.readAllPrimary(shard -> productRepository.findMinId()
+                .flatMap(minId -> productRepository.findMaxId().map(maxId -> new Chunk(shard, minId, maxId))));
+
+        final var chunks = new ArrayList<Chunk>();
+        ranges.stream().flatMap(Optional::stream).forEach(range -> {
+            for (long fromId = range.fromId(); fromId <= range.toId(); fromId += chunkSize) {
+                chunks.add(new Chunk(range.shard(), fromId, Math.min(fromId + chunkSize - 1, range.toId())));
+            }
+        });
+        return chunks;
+    }
+
+    private List<PriceAdjustmentJob.Preview> preview(final PriceAdjustmentRequest request) {
+        final var preview = new ArrayList<PriceAdjustmentJob.Preview>(PREVIEW_SIZE);
+        for (int shard = 0; shard < shards.count() && preview.size() < PREVIEW_SIZE; shard++) {
+            final var limit = Limit.of(PREVIEW_SIZE - preview.size());
+            shards.read(shard, () -> productRepository.findAdjustable(request.getPriceAbove(), request.getPriceBelow(),
+                    request.getTaxRateAbove(), request.getTaxRateBelow(), limit)).forEach(product -> {
+                        final var before = request.getTarget() == PriceAdjustmentRequest.Target.PRICE
+                                ? product.getPrice()
+                                : product.getTaxRate();
+                        preview.add(PriceAdjustmentJob.Preview.builder()
+                                .id(product.getId())
+                                .sku(product.getSku())
+                                .before(before)
+                                .after(before * request.factor() + request.delta())
+                                .build());
+                    });
+        }
+        return preview;
+    }
+
+    private void process(final Job job, final Chunk chunk) {
+        if (job.cancelled.get()) {
+            return;
+        }
+
+        try {
+            final var request = job.request;
+            // Selecting the matching ids first lets the index refresh re-read only the rows the UPDATE touched.
+            final var result = shards.write(chunk.shard(), () -> {
+                final var ids = productRepository.findAdjustableIds(chunk.fromId(), chunk.toId(),
+                        request.getPriceAbove(), request.getPriceBelow(), request.getTaxRateAbove(),
+                        request.getTaxRateBelow());
+                if (ids.isEmpty()) {
+                    return new ChunkResult(0, List.of());
+                }
+                final var updated = request.getTarget() == PriceAdjustmentRequest.Target.PRICE
+                        ? productRepository.adjustPrice(request.factor(), request.delta(), ids,
+                                request.getPriceAbove(), request.getPriceBelow(), request.getTaxRateAbove(),
+                                request.getTaxRateBelow())
+                        : productRepository.adjustTaxRate(request.factor(), request.delta(), ids,
+                                request.getPriceAbove(), request.getPriceBelow(), request.getTaxRateAbove(),
+                                request.getTaxRateBelow());
+                return new ChunkResult(updated, updated > 0 ? productRepository.findAllById(ids) : List.of());
+            });
+
+            result.products().forEach(product -> indexes.forEach(index -> index.put(product)));
+            job.updated.addAndGet(result.updated());
+            job.chunksDone.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.error("Price adjustment job {} failed on shard {} ids {}..{}", job.id, chunk.shard(), chunk.fromId(),
+                    chunk.toId(), e);
+            job.error = e.getMessage();
+            job.cancelled.set(true);
+        }
+    }
+
+    private void finish(final Job job) {
+        // Rows deleted or changed out of the filter while the job ran also land here, as they were counted as matched.
+        if (job.error == null && !job.cancelled.get() && job.updated.get() < job.matched) {
+            job.error = (job.matched - job.updated.get()) + " of " + job.matched
+                    + " matching products were not updated";
+        }
+
+        job.finishedAt = Instant.now();
+        job.status = job.error != null ? PriceAdjustmentJob.Status.FAILED
+                : job.cancelled.get() ? PriceAdjustmentJob.Status.CANCELLED : PriceAdjustmentJob.Status.COMPLETED;
+        log.info("Price adjustment job {} {}: {} of {} matching products updated", job.id, job.status,
+                job.updated.get(), job.matched);
+    }
+
+    private void register(final Job job) {
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            final var iterator = jobs.values().iterator();
+            while (jobs.size() > RETAINED_JOBS && iterator.hasNext()) {
+                if (iterator.next().status != PriceAdjustmentJob.Status.RUNNING) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.product.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.product.models.Product;
+import com.example.product.repositories.ProductKey;
+import com.example.product.repositories.ProductRepository;
+import com.example.product.sharding.ProductShards;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Membership filter over existing product ids and skus. A negative answer is
+ * definite, so lookups for unknown keys can skip the database. Deletes cannot
+ * be removed from a Bloom filter; the periodic rebuild drops them.
+ */
+@Slf4j
+@Component
+public class ProductBloomFilter implements ProductIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private record Filters(BloomFilter ids, BloomFilter skus) {
+
+        void add(final long id, final String sku) {
+            ids.add(id);
+            if (sku != null) {
+                skus.add(sku);
+            }
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final ProductShards shards;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter negatives;
+    private final Counter falsePositives;
+
+    private volatile Filters current;
+    private volatile Filters rebuilding;
+    private volatile boolean loaded;
+
+    public ProductBloomFilter(final ProductRepository productRepository, final ProductShards shards,
+            final MeterRegistry meterRegistry,
+            @Value("${product.bloom.expected-insertions:1000000}") final long expectedInsertions,
+            @Value("${product.bloom.false-positive-rate:0.01}") final double falsePositiveRate) {
+        this.productRepository = productRepository;
+        this.shards = shards;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = newFilters(expectedInsertions);
+        this.negatives = Counter.builder("product.bloom.negatives")
+                .description("Lookups answered as missing without a query").register(meterRegistry);
+        this.falsePositives = Counter.builder("product.bloom.false_positives")
+                .description("Lookups the filter let through that found nothing").register(meterRegistry);
+        Gauge.builder("product.bloom.expected_fpp", this, filter -> filter.current.ids().expectedFalsePositiveRate())
+                .register(meterRegistry);
+    }
+
+    public boolean mightContainId(final long id) {
+        if (!loaded || current.ids().mightContain(id)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    public boolean mightContainSku(final String sku) {
+        if (!loaded || sku == null || current.skus().mightContain(sku)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Records that a key the filter let through was not found.
+     */
+    public void recordMiss() {
+        if (loaded) {
+            falsePositives.increment();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        loaded = false;
+        current = newFilters(expectedInsertions);
+    }
+
+    @Override
+    public void put(final Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        // rebuild() publishes the new filters before it clears rebuilding, so reading rebuilding first means a
+        // put racing the swap lands either in the filters being built or in the ones that replaced current.
+        final var pending = rebuilding;
+        if (pending != null) {
+            pending.add(product.getId(), product.getSku());
+        }
+        current.add(product.getId(), product.getSku());
+    }
+
+    @Override
+    public void remove(final long id) {
+        // Bloom filters cannot forget keys; rebuild() drops deleted products.
+    }
+
+    @Override
+    public void loaded() {
+        loaded = true;
+    }
+
+    @Scheduled(initialDelayString = "${product.bloom.rebuild-interval:PT10M}",
+            fixedDelayString = "${product.bloom.rebuild-interval:PT10M}")
+    public void rebuild() {
+        if (!loaded) {
+            return;
+        }
+
+        final var count = shards.readAllPrimary(shard -> productRepository.count()).stream()
+                .mapToLong(Long::longValue).sum();
+        final var filters = newFilters(Math.max(expectedInsertions, count * 2));
+        rebuilding = filters;
+        try {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                var keys = nextKeys(shard, 0L);
+                while (!keys.isEmpty()) {
+                    var after = 0L;
+                    for (final ProductKey key : keys) {
+                        filters.add(key.getId(), key.getSku());
+                        after = key.getId();
+                    }
+                    keys = nextKeys(shard, after);
+                }
+            }
+            current = filters;
+        } finally {
+            rebuilding = null;
+        }
+
+        log.debug("Rebuilt product bloom filter, expected false positive rate {}",
+                filters.ids().expectedFalsePositiveRate());
+    }
+
+    private List<ProductKey> nextKeys(final int shard, final long after) {
+        return shards.readPrimary(shard, () -> productRepository.findByIdGreaterThanOrderById(after,
+                Limit.of(REBUILD_BATCH_SIZE), ProductKey.class));
+    }
+
+    private Filters newFilters(final long insertions) {
+        return new Filters(new BloomFilter(insertions, falsePositiveRate), new BloomFilter(insertions, falsePositiveRate));
+    }
+}
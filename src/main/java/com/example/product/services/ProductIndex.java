@@ -0,0 +1,26 @@
+package com.example.product.services;
+
+import com.example.product.models.Product;
+
+/**
+ * In-memory structure derived from the products table. Implementations are
+ * rebuilt on startup by {@link ProductIndexInitializer} and kept in sync by
+ * {@link ProductService} on every write.
+ */
+public interface ProductIndex {
+
+    void clear();
+
+    /**
+     * Inserts the product, replacing whatever was indexed under the same id.
+     */
+    void put(Product product);
+
+    void remove(long id);
+
+    /**
+     * Called once a full rebuild has put every product.
+     */
+    default void loaded() {
+    }
+}
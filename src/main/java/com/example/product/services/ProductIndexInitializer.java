@@ -0,0 +1,63 @@
+package com.example.product.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.example.product.repositories.ProductRepository;
+import com.example.product.sharding.ProductShards;
+import com.example.product.snapshot.CatalogSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the product indexes, restoring the catalog snapshot first when there
+ * is one. Runs once every singleton exists, so before the web server starts
+ * accepting requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductIndexInitializer implements SmartInitializingSingleton {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductShards shards;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final List<ProductIndex> indexes;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        indexes.forEach(ProductIndex::clear);
+        if (catalogSnapshotService.restore(product -> indexes.forEach(index -> index.put(product)))) {
+            indexes.forEach(ProductIndex::loaded);
+            return;
+        }
+
+        // A failed restore may have indexed part of the snapshot.
+        indexes.forEach(ProductIndex::clear);
+        var loaded = 0L;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            var pageRequest = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+            while (true) {
+                final var request = pageRequest;
+                final var slice = shards.readPrimary(shard, () -> productRepository.findAll(request));
+                slice.forEach(product -> indexes.forEach(index -> index.put(product)));
+                loaded += slice.getNumberOfElements();
+                if (!slice.hasNext()) {
+                    break;
+                }
+                pageRequest = pageRequest.next();
+            }
+        }
+        indexes.forEach(ProductIndex::loaded);
+
+        log.info("Indexed {} products from {} shards into {} product indexes", loaded, shards.count(),
+                indexes.size());
+    }
+}
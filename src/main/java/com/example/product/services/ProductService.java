@@ -1,60 +1,384 @@
 package com.example.product.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.example.product.dtos.ProductLookupResponse;
+import com.example.product.exceptions.DuplicateSkuException;
+import com.example.product.exceptions.ProductNotFoundException;
 import com.example.product.exceptions.ProductServiceGenericException;
 import com.example.product.models.Product;
+import com.example.product.models.ProductField;
+import com.example.product.models.ProductSortField;
 import com.example.product.repositories.ProductRepository;
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ReadYourWrites;
+import com.example.product.sharding.ShardContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Data;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Data
 @Service
 public class ProductService {
 
+    @Value("${product.lookup.chunk-size:500}")
+    private int lookupChunkSize;
+
+    private static final String SKU_INDEX_NAME = "ux_products_sku";
+
     private final ProductRepository productRepository;
+    private final ProductShards shards;
+    private final SkuIndex skuIndex;
+    private final ProductSortIndex sortIndex;
+    private final ProductBloomFilter bloomFilter;
+    private final List<ProductIndex> indexes;
+    private final ReadYourWrites readYourWrites;
+    private final SingleFlight<Long, Product> loadsById;
+    private final SingleFlight<String, Product> loadsBySku;
+    private final SingleFlight<PageRequest, Page<Product>> loadsByPage;
+
+    public ProductService(final ProductRepository productRepository, final ProductShards shards,
+            final SkuIndex skuIndex, final ProductSortIndex sortIndex, final ProductBloomFilter bloomFilter,
+            final List<ProductIndex> indexes, final ReadYourWrites readYourWrites,
+            final MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.shards = shards;
+        this.skuIndex = skuIndex;
+        this.sortIndex = sortIndex;
+        this.bloomFilter = bloomFilter;
+        this.indexes = indexes;
+        this.readYourWrites = readYourWrites;
+        this.loadsById = new SingleFlight<>("id", meterRegistry);
+        this.loadsBySku = new SingleFlight<>("sku", meterRegistry);
+        this.loadsByPage = new SingleFlight<>("page", meterRegistry);
+    }
 
     public Page<Product> all(final PageRequest pageRequest) {
         try {
-            return productRepository.findAll(pageRequest);
+            return coalesce(loadsByPage, pageRequest, () -> sortIndex.page(pageRequest)
+                    .<Page<Product>>map(ids -> new PageImpl<>(findAllInOrder(ids.getContent()), pageRequest,
+                            ids.getTotalElements()))
+                    .orElseGet(() -> findAll(pageRequest)));
+        } catch (Throwable e) {
+            throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
+        }
+    }
+
+    private Page<Product> findAll(final PageRequest pageRequest) {
+        // Ties are broken by id, as the sort index and the merge of shard pages do.
+        final var sort = pageRequest.getSort().getOrderFor(ProductSortField.ID.getProperty()) == null
+                ? pageRequest.getSort().and(Sort.by(ProductSortField.ID.getProperty()))
+                : pageRequest.getSort();
+        if (shards.count() == 1) {
+            final var page = shards.read(ShardContext.DEFAULT_SHARD,
+                    () -> productRepository.findAll(pageRequest.withSort(sort)));
+            return new PageImpl<>(page.getContent(), pageRequest, page.getTotalElements());
+        }
+
+        final var window = PageRequest.of(0, (int) pageRequest.getOffset() + pageRequest.getPageSize(), sort);
+        final var pages = shards.readAll(shard -> productRepository.findAll(window));
+
+        return new PageImpl<>(
+                ProductShards.merge(pages.stream().map(Page::getContent).toList(),
+                        ProductSortField.comparator(pageRequest.getSort()), pageRequest.getOffset(),
+                        pageRequest.getPageSize()),
+                pageRequest, pages.stream().mapToLong(Page::getTotalElements).sum());
+    }
+
+    /**
+     * Like {@link #all(PageRequest)}, but selects only {@code fields} and
+     * returns each product as a map keyed by JSON field name. The id and sort
+     * columns are read to order and merge pages but are only returned when
+     * requested.
+     */
+    public Page<Map<String, Object>> all(final PageRequest pageRequest, final Set<ProductField> fields) {
+        try {
+            final var selection = EnumSet.copyOf(fields);
+            selection.add(ProductField.ID);
+            pageRequest.getSort().forEach(order -> selection.add(ProductField.fromProperty(order.getProperty())));
+
+            return sortIndex.page(pageRequest)
+                    .<Page<Map<ProductField, Object>>>map(ids -> new PageImpl<>(
+                            findProjectedInOrder(ids.getContent(), selection), pageRequest, ids.getTotalElements()))
+                    .orElseGet(() -> findAllProjected(pageRequest, selection))
+                    .map(row -> {
+                        final var values = new LinkedHashMap<String, Object>();
+                        fields.forEach(field -> values.put(field.getJsonName(), row.get(field)));
+                        return values;
+                    });
         } catch (Throwable e) {
             throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
         }
     }
 
+    private Page<Map<ProductField, Object>> findAllProjected(final PageRequest pageRequest,
+            final Set<ProductField> selection) {
+        final var sort = pageRequest.getSort().getOrderFor(ProductSortField.ID.getProperty()) == null
+                ? pageRequest.getSort().and(Sort.by(ProductSortField.ID.getProperty()))
+                : pageRequest.getSort();
+        if (shards.count() == 1) {
+            final var page = shards.read(ShardContext.DEFAULT_SHARD,
+                    () -> productRepository.findAllProjected(selection, pageRequest.withSort(sort)));
+            return new PageImpl<>(page.getContent(), pageRequest, page.getTotalElements());
+        }
+
+        final var window = PageRequest.of(0, (int) pageRequest.getOffset() + pageRequest.getPageSize(), sort);
+        final var pages = shards.readAll(shard -> productRepository.findAllProjected(selection, window));
+
+        return new PageImpl<>(
+                ProductShards.merge(pages.stream().map(Page::getContent).toList(), projectionComparator(sort),
+                        pageRequest.getOffset(), pageRequest.getPageSize()),
+                pageRequest, pages.stream().mapToLong(Page::getTotalElements).sum());
+    }
+
+    private List<Map<ProductField, Object>> findProjectedInOrder(final List<Long> ids,
+            final Set<ProductField> selection) {
+        final var byId = fetchInChunks(ids, ProductShards::shardOfId,
+                chunk -> productRepository.findProjectedByIds(selection, chunk),
+                row -> (Long) row.get(ProductField.ID));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Comparator<Map<ProductField, Object>> projectionComparator(final Sort sort) {
+        Comparator<Map<ProductField, Object>> comparator = (left, right) -> 0;
+        for (final Sort.Order order : sort) {
+            final var field = ProductField.fromProperty(order.getProperty());
+            final Comparator<Map<ProductField, Object>> byField = Comparator.comparing(
+                    row -> (Comparable) row.get(field), Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byField : byField.reversed());
+        }
+        return comparator;
+    }
+
+    private List<Product> findAllInOrder(final List<Long> ids) {
+        final var byId = fetchInChunks(ids, ProductShards::shardOfId, productRepository::findAllById, Product::getId);
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     public Product get(final long id) {
+        if (!bloomFilter.mightContainId(id)) {
+            throw new ProductNotFoundException("id", id);
+        }
+
         try {
-            return productRepository.findById(id).orElseThrow();
+            return coalesce(loadsById, id, () -> shards
+                    .read(ProductShards.shardOfId(id), () -> productRepository.findById(id))
+                    .orElseThrow(() -> {
+                        bloomFilter.recordMiss();
+                        return new ProductNotFoundException("id", id);
+                    }));
+        } catch (ProductServiceGenericException e) {
+            throw e;
         } catch (Throwable e) {
             throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
         }
     }
 
-    public Product save(final Product product) {
+    public Product getBySku(final String sku) {
+        final var id = skuIndex.idOf(sku);
+        if (id.isPresent()) {
+            return get(id.get());
+        }
+        if (!bloomFilter.mightContainSku(sku)) {
+            throw new ProductNotFoundException("sku", sku);
+        }
+
         try {
-            return productRepository.save(product);
+            return coalesce(loadsBySku, sku, () -> shards
+                    .read(shards.shardOf(sku), () -> productRepository.findBySku(sku))
+                    .orElseThrow(() -> {
+                        bloomFilter.recordMiss();
+                        return new ProductNotFoundException("sku", sku);
+                    }));
+        } catch (ProductServiceGenericException e) {
+            throw e;
         } catch (Throwable e) {
             throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
         }
     }
 
+    /**
+     * Callers reading the primary because they wrote recently load on their
+     * own rather than join a call that may be reading a lagging replica.
+     */
+    private <K, V> V coalesce(final SingleFlight<K, V> loads, final K key, final Supplier<V> loader) {
+        return readYourWrites.mustReadPrimary() ? loader.get() : loads.load(key, loader);
+    }
+
+    public ProductLookupResponse lookup(final Collection<Long> ids, final Collection<String> skus) {
+        try {
+            final var requestedIds = ids == null ? List.<Long>of() : List.copyOf(new LinkedHashSet<>(ids));
+            final var requestedSkus = skus == null ? List.<String>of() : List.copyOf(new LinkedHashSet<>(skus));
+
+            final var idsToFetch = new LinkedHashSet<Long>();
+            final var skusToFetch = new ArrayList<String>();
+            requestedIds.stream().filter(bloomFilter::mightContainId).forEach(idsToFetch::add);
+            requestedSkus.forEach(sku -> skuIndex.idOf(sku).ifPresentOrElse(idsToFetch::add, () -> {
+                if (bloomFilter.mightContainSku(sku)) {
+                    skusToFetch.add(sku);
+                }
+            }));
+
+            final var byId = fetchInChunks(List.copyOf(idsToFetch), ProductShards::shardOfId,
+                    productRepository::findAllById, Product::getId);
+            final var bySku = fetchInChunks(skusToFetch, shards::shardOf, productRepository::findBySkuIn,
+                    Product::getSku);
+            byId.values().forEach(product -> bySku.putIfAbsent(product.getSku(), product));
+
+            final var products = new ArrayList<Product>(requestedIds.size() + requestedSkus.size());
+            final var missingIds = new ArrayList<Long>();
+            final var missingSkus = new ArrayList<String>();
+
+            requestedIds.forEach(id -> {
+                if (byId.containsKey(id)) {
+                    products.add(byId.get(id));
+                } else {
+                    missingIds.add(id);
+                }
+            });
+            requestedSkus.forEach(sku -> {
+                if (bySku.containsKey(sku)) {
+                    products.add(bySku.get(sku));
+                } else {
+                    missingSkus.add(sku);
+                }
+            });
+
+            return ProductLookupResponse.builder()
+                    .products(products.stream().map(Product::dto).toList())
+                    .missingIds(missingIds)
+                    .missingSkus(missingSkus)
+                    .build();
+        } catch (Throwable e) {
+            throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
+        }
+    }
+
+    private <K, V> Map<K, V> fetchInChunks(final List<K> keys, final Function<K, Integer> shardOf,
+            final Function<List<K>, List<V>> query, final Function<V, K> keyOf) {
+        final var result = new HashMap<K, V>(keys.size() * 2);
+        keys.stream().collect(Collectors.groupingBy(shardOf)).forEach((shard, shardKeys) -> {
+            for (int from = 0; from < shardKeys.size(); from += lookupChunkSize) {
+                final var chunk = shardKeys.subList(from, Math.min(from + lookupChunkSize, shardKeys.size()));
+                shards.read(shard, () -> query.apply(chunk))
+                        .forEach(value -> result.put(keyOf.apply(value), value));
+            }
+        });
+        return result;
+    }
+
+    public Product save(final Product product) {
+        final var shard = product.getId() == null ? shards.shardOf(product.getSku())
+                : ProductShards.shardOfId(product.getId());
+        return persist(product, () -> shards.write(shard, () -> {
+            checkSkuAvailable(product);
+            return productRepository.save(product);
+        }));
+    }
+
+    /**
+     * Looks the product up in the same primary transaction that saves it, so
+     * a row the replicas have not caught up on yet is still found.
+     */
     public Product update(final long id, final Product product) {
+        final var previousSku = new AtomicReference<String>();
+        final var saved = persist(product, () -> shards.write(ProductShards.shardOfId(id), () -> {
+            final var existing = productRepository.findById(id)
+                    .orElseThrow(() -> new ProductNotFoundException("id", id));
+            previousSku.set(existing.getSku());
+            product.setId(existing.getId());
+            checkSkuAvailable(product);
+            return productRepository.save(product);
+        }));
+        if (previousSku.get() != null) {
+            loadsBySku.invalidate(previousSku.get());
+        }
+        return saved;
+    }
+
+    private void checkSkuAvailable(final Product product) {
+        skuIndex.idOf(product.getSku()).filter(id -> !id.equals(product.getId())).ifPresent(id -> {
+            throw new DuplicateSkuException(product.getSku());
+        });
+    }
+
+    private Product persist(final Product product, final Supplier<Product> write) {
         try {
-            return productRepository.findById(id).map(existing -> {
-                product.setId(existing.getId());
-                return this.save(product);
-            }).orElseThrow();
+            final var saved = write.get();
+            indexes.forEach(index -> index.put(saved));
+            invalidateLoads(saved.getId(), saved.getSku());
+            return saved;
+        } catch (ProductServiceGenericException e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            if (isSkuIndexViolation(e)) {
+                throw new DuplicateSkuException(product.getSku(), e);
+            }
+            throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
         } catch (Throwable e) {
             throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
         }
     }
 
+    /**
+     * Checks the constraint Hibernate reports rather than the message text. H2 names it schema-qualified and,
+     * for the index Hibernate creates, with an {@code _INDEX_} suffix.
+     */
+    private static boolean isSkuIndexViolation(final DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException violation)
+                || violation.getConstraintName() == null) {
+            return false;
+        }
+        final var name = violation.getConstraintName().toLowerCase(Locale.ROOT);
+        final var unqualified = name.substring(name.lastIndexOf('.') + 1);
+        return unqualified.equals(SKU_INDEX_NAME) || unqualified.startsWith(SKU_INDEX_NAME + "_index");
+    }
+
     public void delete(final long id) {
         try {
-            productRepository.deleteById(id);
+            final var sku = shards.write(ProductShards.shardOfId(id), () -> productRepository.findById(id)
+                    .map(product -> {
+                        productRepository.delete(product);
+                        return product.getSku();
+                    })
+                    .orElse(null));
+            indexes.forEach(index -> index.remove(id));
+            invalidateLoads(id, sku);
         } catch (Throwable e) {
             throw new ProductServiceGenericException(e.getClass() + "  in service layer", e);
         }
     }
+
+    private void invalidateLoads(final long id, final String sku) {
+        loadsById.invalidate(id);
+        if (sku != null) {
+            loadsBySku.invalidate(sku);
+        }
+        loadsByPage.invalidateAll();
+    }
 }
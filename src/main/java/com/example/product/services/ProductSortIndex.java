@@ -0,0 +1,249 @@
+package com.example.product.services;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.IntStream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.product.models.Product;
+import com.example.product.models.ProductSortField;
+import com.example.product.repositories.ProductRepository;
+import com.example.product.sharding.ProductShards;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps one ordered id permutation per presorted {@link ProductSortField} so
+ * list pages in those orders are answered without a database sort. Writes
+ * through this instance update the orderings incrementally; a periodic check
+ * of each shard's row count and highest id catches writes made elsewhere and
+ * reloads the shards that drifted, serving pages from the database meanwhile.
+ */
+@Slf4j
+@Component
+public class ProductSortIndex implements ProductIndex {
+
+    private static final int RELOAD_BATCH_SIZE = 1000;
+
+    private record ShardState(long count, long maxId) {
+    }
+
+    private final ProductRepository productRepository;
+    private final ProductShards shards;
+    private final Map<Long, Product> entries = new ConcurrentHashMap<>();
+    private final Map<ProductSortField, NavigableSet<Product>> orderings = new EnumMap<>(ProductSortField.class);
+    // Descending pages break ties by ascending id, as the database does, so they cannot walk an ordering backwards.
+    private final Map<ProductSortField, NavigableSet<Product>> descendingOrderings =
+            new EnumMap<>(ProductSortField.class);
+    private final long[] counts;
+    private volatile boolean loaded;
+    private volatile boolean inSync = true;
+    // Ids put or removed while a shard reloads; the reload must not overwrite them with what it read earlier.
+    private Set<Long> written;
+
+    public ProductSortIndex(final ProductRepository productRepository, final ProductShards shards) {
+        this.productRepository = productRepository;
+        this.shards = shards;
+        this.counts = new long[shards.count()];
+        Arrays.stream(ProductSortField.values()).filter(ProductSortField::isPresorted).forEach(field -> {
+            orderings.put(field, new ConcurrentSkipListSet<>(field.getComparator().thenComparing(Product::getId)));
+            descendingOrderings.put(field,
+                    new ConcurrentSkipListSet<>(field.getComparator().reversed().thenComparing(Product::getId)));
+        });
+    }
+
+    /**
+     * Returns the ids of the requested page, or empty when the sort is not
+     * presorted, the index has not finished loading or it is reloading shards
+     * that drifted from the database.
+     */
+    public Optional<Page<Long>> page(final Pageable pageable) {
+        if (!loaded || !inSync) {
+            return Optional.empty();
+        }
+
+        final var order = pageable.getSort().isUnsorted() ? Sort.Order.asc(ProductSortField.ID.getProperty())
+                : pageable.getSort().stream().findFirst().orElseThrow();
+        if (pageable.getSort().stream().count() > 1 || order.isIgnoreCase()) {
+            return Optional.empty();
+        }
+
+        final var field = ProductSortField.from(order.getProperty());
+        final var ordering = (order.isAscending() ? orderings : descendingOrderings).get(field);
+        if (ordering == null) {
+            return Optional.empty();
+        }
+
+        final var ids = ordering.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(Product::getId)
+                .toList();
+        return Optional.of(new PageImpl<>(ids, pageable, entries.size()));
+    }
+
+    @Override
+    public synchronized void clear() {
+        loaded = false;
+        entries.clear();
+        orderings.values().forEach(NavigableSet::clear);
+        descendingOrderings.values().forEach(NavigableSet::clear);
+        Arrays.fill(counts, 0L);
+    }
+
+    @Override
+    public synchronized void put(final Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        if (written != null) {
+            written.add(product.getId());
+        }
+        index(product);
+    }
+
+    @Override
+    public synchronized void remove(final long id) {
+        if (written != null) {
+            written.add(id);
+        }
+        unindex(id);
+    }
+
+    @Override
+    public void loaded() {
+        loaded = true;
+    }
+
+    /**
+     * Compares each shard's row count and highest id with what is indexed and
+     * reloads the shards that differ.
+     */
+    @Scheduled(initialDelayString = "${product.sort-index.check-interval:PT1M}",
+            fixedDelayString = "${product.sort-index.check-interval:PT1M}")
+    public void reconcile() {
+        if (!loaded) {
+            return;
+        }
+
+        final var stored = shards.readAllPrimary(
+                shard -> new ShardState(productRepository.count(), productRepository.findMaxId().orElse(0L)));
+        final var drifted = IntStream.range(0, shards.count())
+                .filter(shard -> !stored.get(shard).equals(indexed(shard)))
+                .boxed()
+                .toList();
+        if (drifted.isEmpty()) {
+            inSync = true;
+            return;
+        }
+
+        log.info("Product sort index drifted from shards {}, reloading them", drifted);
+        inSync = false;
+        drifted.forEach(this::reload);
+        inSync = true;
+    }
+
+    private void reload(final int shard) {
+        synchronized (this) {
+            written = new HashSet<>();
+        }
+        try {
+            var after = ProductShards.firstId(shard) - 1;
+            while (true) {
+                final var cursor = after;
+                final var rows = shards.readPrimary(shard, () -> productRepository.findByIdGreaterThanOrderById(
+                        cursor, Limit.of(RELOAD_BATCH_SIZE), Product.class));
+                final var upTo = rows.size() < RELOAD_BATCH_SIZE ? ProductShards.firstId(shard + 1) - 1
+                        : rows.get(rows.size() - 1).getId();
+                replaceRange(after, upTo, rows);
+                if (rows.size() < RELOAD_BATCH_SIZE) {
+                    return;
+                }
+                after = upTo;
+            }
+        } finally {
+            synchronized (this) {
+                written = null;
+            }
+        }
+    }
+
+    /**
+     * Makes the ids in {@code (after, upTo]} match {@code rows}, leaving alone
+     * ids this instance wrote since the reload started.
+     */
+    private synchronized void replaceRange(final long after, final long upTo, final List<Product> rows) {
+        final var ids = new HashSet<Long>(rows.size() * 2);
+        rows.forEach(row -> ids.add(row.getId()));
+        byId().subSet(probe(after), false, probe(upTo), true).stream()
+                .map(Product::getId)
+                .filter(id -> !ids.contains(id) && !written.contains(id))
+                .toList()
+                .forEach(this::unindex);
+        rows.stream().filter(row -> !written.contains(row.getId())).forEach(this::index);
+    }
+
+    private synchronized ShardState indexed(final int shard) {
+        final var last = byId().floor(probe(ProductShards.firstId(shard + 1) - 1));
+        final var maxId = last == null || ProductShards.shardOfId(last.getId()) != shard ? 0L : last.getId();
+        return new ShardState(counts[shard], maxId);
+    }
+
+    private void index(final Product product) {
+        unindex(product.getId());
+
+        final var entry = new Product();
+        entry.setId(product.getId());
+        entry.setSku(product.getSku());
+        entry.setName(product.getName());
+        entry.setPrice(product.getPrice());
+        entry.setTaxRate(product.getTaxRate());
+
+        entries.put(entry.getId(), entry);
+        orderings.values().forEach(ordering -> ordering.add(entry));
+        descendingOrderings.values().forEach(ordering -> ordering.add(entry));
+        count(entry.getId(), 1);
+    }
+
+    private void unindex(final long id) {
+        final var entry = entries.remove(id);
+        if (entry != null) {
+            orderings.values().forEach(ordering -> ordering.remove(entry));
+            descendingOrderings.values().forEach(ordering -> ordering.remove(entry));
+            count(id, -1);
+        }
+    }
+
+    private void count(final long id, final int delta) {
+        final var shard = ProductShards.shardOfId(id);
+        if (shard < counts.length) {
+            counts[shard] += delta;
+        }
+    }
+
+    private NavigableSet<Product> byId() {
+        return orderings.get(ProductSortField.ID);
+    }
+
+    private static Product probe(final long id) {
+        final var probe = new Product();
+        probe.setId(id);
+        return probe;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.example.product.services;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.example.product.dtos.ShardRebalanceReport;
+import com.example.product.models.Product;
+import com.example.product.models.ProductMove;
+import com.example.product.repositories.ProductMoveRepository;
+import com.example.product.repositories.ProductRepository;
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ShardContext;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves every product whose sku hashes to a different shard than the one it
+ * is stored on, e.g. after shards were added. A moved product is inserted on
+ * its new shard, gets a new id recorded as a {@link ProductMove}, and is then
+ * deleted from the old one. Each step is its own transaction, so a run that
+ * stopped part way is finished by the next one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShardRebalancer {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_MOVES_PAGE_SIZE = 1000;
+
+    @Value("${product.sharding.rebalance-on-startup:false}")
+    private boolean rebalanceOnStartup;
+
+    private final ProductRepository productRepository;
+    private final ProductMoveRepository productMoveRepository;
+    private final ProductShards shards;
+    private final List<ProductIndex> indexes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebalanceOnStartup() {
+        if (rebalanceOnStartup && shards.count() > 1) {
+            rebalance();
+        }
+    }
+
+    public synchronized ShardRebalanceReport rebalance() {
+        var scanned = 0L;
+        var moved = 0L;
+        // Products moved during this run get ids above these and are not scanned again on their new shard.
+        final var lastIds = shards.readAllPrimary(shard -> productRepository.findMaxId().orElse(0L));
+
+        for (int shard = 0; shard < shards.count(); shard++) {
+            final var source = shard;
+            final long last = lastIds.get(shard);
+            var after = 0L;
+            while (after < last) {
+                final var cursor = after;
+                final var batch = shards.readPrimary(source, () -> productRepository
+                        .findByIdGreaterThanOrderById(cursor, Limit.of(BATCH_SIZE), Product.class));
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                for (final Product product : batch) {
+                    if (product.getId() > last) {
+                        after = last;
+                        break;
+                    }
+                    scanned++;
+                    after = product.getId();
+
+                    final var target = shards.shardOf(product.getSku());
+                    if (target != source) {
+                        move(product, source, target);
+                        moved++;
+                    }
+                }
+            }
+        }
+
+        log.info("Rebalanced {} shards: scanned {} products, moved {}", shards.count(), scanned, moved);
+        return ShardRebalanceReport.builder()
+                .shards(shards.count())
+                .scanned(scanned)
+                .moved(moved)
+                .build();
+    }
+
+    /**
+     * Moves recorded so far in order of previous id, starting after
+     * {@code afterOldId}.
+     */
+    public List<ProductMove> moves(final long afterOldId, final int limit) {
+        return shards.read(ShardContext.DEFAULT_SHARD, () -> productMoveRepository
+                .findByOldIdGreaterThanOrderByOldId(afterOldId,
+                        Limit.of(Math.max(1, Math.min(limit, MAX_MOVES_PAGE_SIZE)))));
+    }
+
+    private void move(final Product product, final int source, final int target) {
+        // A run that stopped after the insert left the sku on both shards; bring that copy up to date instead.
+        final var moved = shards.write(target, () -> {
+            final var copy = productRepository.findBySku(product.getSku()).orElseGet(Product::new);
+            BeanUtils.copyProperties(product, copy, "id");
+            return productRepository.save(copy);
+        });
+        shards.write(ShardContext.DEFAULT_SHARD, () -> productMoveRepository.save(ProductMove.builder()
+                .oldId(product.getId())
+                .newId(moved.getId())
+                .movedAt(Instant.now())
+                .build()));
+        shards.write(source, () -> productRepository.deleteById(product.getId()));
+
+        indexes.forEach(index -> {
+            index.remove(product.getId());
+            index.put(moved);
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.product.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader
+ * and every caller arriving while it is in flight waits for, and shares, its
+ * result or exception. A write {@link #invalidate invalidates} its key, and
+ * callers never join a call that started before the last invalidation, so a
+ * caller that just wrote does not get the value from before its write.
+ */
+public class SingleFlight<K, V> {
+
+    private static final int GENERATION_STRIPES = 256;
+
+    private record Call<V>(long generation, CompletableFuture<V> result) {
+    }
+
+    private final ConcurrentMap<K, Call<V>> inFlight = new ConcurrentHashMap<>();
+    // Keys share a generation per stripe, so memory stays bounded at the cost of some needlessly separate loads.
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Counter loads;
+    private final Counter coalesced;
+
+    public SingleFlight(final String operation, final MeterRegistry meterRegistry) {
+        this.loads = Counter.builder("product.loads")
+                .tag("operation", operation)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("product.loads")
+                .tag("operation", operation)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public V load(final K key, final Supplier<V> loader) {
+        final var call = new Call<V>(generations.get(stripe(key)), new CompletableFuture<>());
+        while (true) {
+            final var existing = inFlight.putIfAbsent(key, call);
+            if (existing == null) {
+                break;
+            }
+            if (existing.generation() >= call.generation()) {
+                coalesced.increment();
+                return await(existing.result());
+            }
+            // The call in flight may have read the value before a write; replace it rather than join it.
+            if (inFlight.replace(key, existing, call)) {
+                break;
+            }
+        }
+
+        loads.increment();
+        try {
+            final var value = loader.get();
+            call.result().complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Makes later loads of {@code key} start a new call instead of joining
+     * one already in flight. Call after the write has committed.
+     */
+    public void invalidate(final K key) {
+        generations.incrementAndGet(stripe(key));
+    }
+
+    public void invalidateAll() {
+        for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+            generations.incrementAndGet(stripe);
+        }
+    }
+
+    private static int stripe(final Object key) {
+        final var hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private V await(final CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
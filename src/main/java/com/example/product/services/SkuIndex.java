@@ -0,0 +1,51 @@
+package com.example.product.services;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.example.product.models.Product;
+
+@Component
+public class SkuIndex implements ProductIndex {
+
+    private final Map<String, Long> idBySku = new ConcurrentHashMap<>();
+    private final Map<Long, String> skuById = new ConcurrentHashMap<>();
+
+    public Optional<Long> idOf(final String sku) {
+        return sku == null ? Optional.empty() : Optional.ofNullable(idBySku.get(sku));
+    }
+
+    public int size() {
+        return skuById.size();
+    }
+
+    @Override
+    public void clear() {
+        idBySku.clear();
+        skuById.clear();
+    }
+
+    @Override
+    public void put(final Product product) {
+        if (product.getId() == null || product.getSku() == null) {
+            return;
+        }
+
+        final var previous = skuById.put(product.getId(), product.getSku());
+        if (previous != null && !previous.equals(product.getSku())) {
+            idBySku.remove(previous, product.getId());
+        }
+        idBySku.put(product.getSku(), product.getId());
+    }
+
+    @Override
+    public void remove(final long id) {
+        final var sku = skuById.remove(id);
+        if (sku != null) {
+            idBySku.remove(sku, id);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.product.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.product.logging.SqlStatementCounter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Routes product work to shards. Rows live on the shard picked by a consistent
+ * hash of their sku, and ids carry that shard in their upper bits, so an id
+ * alone is enough to find its row. Reads run in read-only transactions, which
+ * the shard serves from its replicas unless the caller wrote recently; the
+ * {@code readPrimary} variants always read the primary.
+ */
+@Component
+public class ProductShards {
+
+    public static final int SHARD_ID_BITS = 48;
+
+    private final ShardRoutingDataSource dataSource;
+    private final ConsistentHashRing ring;
+    private final TransactionTemplate readWrite;
+    private final TransactionTemplate readOnly;
+    private final ExecutorService scatter;
+    private final ReadYourWrites readYourWrites;
+
+    public ProductShards(final ShardRoutingDataSource dataSource, final PlatformTransactionManager transactionManager,
+            final ReadYourWrites readYourWrites) {
+        this.dataSource = dataSource;
+        this.readYourWrites = readYourWrites;
+        this.ring = new ConsistentHashRing(dataSource.shardCount());
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly.setReadOnly(true);
+        this.scatter = dataSource.shardCount() > 1 ? Executors.newFixedThreadPool(dataSource.shardCount()) : null;
+    }
+
+    public int count() {
+        return dataSource.shardCount();
+    }
+
+    public int shardOf(final String sku) {
+        return count() == 1 || sku == null ? ShardContext.DEFAULT_SHARD : ring.shardOf(sku);
+    }
+
+    public static int shardOfId(final long id) {
+        return (int) (id >>> SHARD_ID_BITS);
+    }
+
+    public static long firstId(final int shard) {
+        return ((long) shard << SHARD_ID_BITS) + 1;
+    }
+
+    public <T> T read(final int shard, final Supplier<T> work) {
+        return on(shard, readTemplate(), work);
+    }
+
+    /**
+     * Reads from the shard's primary whoever the caller is, for work that must
+     * not miss rows the replicas have not caught up on: rebuilding in-memory
+     * indexes, and deciding which rows a write touches.
+     */
+    public <T> T readPrimary(final int shard, final Supplier<T> work) {
+        return on(shard, readWrite, work);
+    }
+
+    public <T> T write(final int shard, final Supplier<T> work) {
+        try {
+            return on(shard, readWrite, work);
+        } finally {
+            readYourWrites.recordWrite();
+        }
+    }
+
+    public void write(final int shard, final Runnable work) {
+        write(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the read on every shard, in parallel when there is more than one,
+     * and returns the results indexed by shard.
+     */
+    public <T> List<T> readAll(final IntFunction<T> work) {
+        return onAll(readTemplate(), work);
+    }
+
+    public <T> List<T> readAllPrimary(final IntFunction<T> work) {
+        return onAll(readWrite, work);
+    }
+
+    /**
+     * K-way merge of lists that are each sorted by {@code comparator}, skipping
+     * the first {@code skip} elements of the merged order.
+     */
+    public static <T> List<T> merge(final List<List<T>> sorted, final Comparator<? super T> comparator,
+            final long skip, final int limit) {
+        record Head<T>(T value, int list, int index) {
+        }
+
+        final var heads = new PriorityQueue<Head<T>>(Math.max(1, sorted.size()),
+                (a, b) -> comparator.compare(a.value(), b.value()));
+        for (int list = 0; list < sorted.size(); list++) {
+            if (!sorted.get(list).isEmpty()) {
+                heads.add(new Head<>(sorted.get(list).get(0), list, 0));
+            }
+        }
+
+        final var result = new ArrayList<T>(limit);
+        var skipped = 0L;
+        while (!heads.isEmpty() && result.size() < limit) {
+            final var head = heads.poll();
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                result.add(head.value());
+            }
+
+            final var next = head.index() + 1;
+            if (next < sorted.get(head.list()).size()) {
+                heads.add(new Head<>(sorted.get(head.list()).get(next), head.list(), next));
+            }
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scatter != null) {
+            scatter.shutdown();
+        }
+    }
+
+    private TransactionTemplate readTemplate() {
+        return readYourWrites.mustReadPrimary() ? readWrite : readOnly;
+    }
+
+    private <T> T on(final int shard, final TransactionTemplate template, final Supplier<T> work) {
+        final var previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return template.execute(status -> work.get());
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private <T> List<T> onAll(final TransactionTemplate template, final IntFunction<T> work) {
+        if (scatter == null) {
+            return List.of(on(ShardContext.DEFAULT_SHARD, template, () -> work.apply(ShardContext.DEFAULT_SHARD)));
+        }
+
+        final var futures = IntStream.range(0, count())
+                .mapToObj(shard -> CompletableFuture.supplyAsync(
+                        SqlStatementCounter.propagate(() -> on(shard, template, () -> work.apply(shard))), scatter))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.product.sharding;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which principals wrote recently so their reads skip the replicas
+ * until the write had time to replicate.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(@Value("${product.sharding.read-your-writes-window:PT5S}") final Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite() {
+        principal().ifPresent(principal -> lastWrites.put(principal, System.nanoTime()));
+    }
+
+    public boolean mustReadPrimary() {
+        if (windowNanos <= 0) {
+            return false;
+        }
+        return principal().map(lastWrites::get).filter(this::withinWindow).isPresent();
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictExpired() {
+        lastWrites.values().removeIf(lastWrite -> !withinWindow(lastWrite));
+    }
+
+    private boolean withinWindow(final long lastWrite) {
+        return System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    private static Optional<String> principal() {
+        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+                .map(Authentication::getName);
+    }
+}
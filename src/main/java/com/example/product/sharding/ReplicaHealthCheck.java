@@ -0,0 +1,18 @@
+package com.example.product.sharding;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class ReplicaHealthCheck {
+
+    private final ShardRoutingDataSource dataSource;
+
+    @Scheduled(fixedDelayString = "${product.sharding.replica-health-check-interval:PT10S}")
+    public void check() {
+        dataSource.replicas().forEach(ReplicaRoutingDataSource::checkHealth);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.product.sharding;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only side of a shard. Hands out connections from one of its healthy
+ * replicas and falls back to the primary when none is healthy or the chosen
+ * replica refuses the connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    public enum Selection {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Selection selection;
+    private final AtomicIntegerArray healthy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(final DataSource primary, final List<DataSource> replicas,
+            final Selection selection) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        IntStream.range(0, replicas.size()).forEach(replica -> healthy.set(replica, 1));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final var replica = choose();
+        if (replica >= 0) {
+            try {
+                return replicas.get(replica).getConnection();
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        final var replica = choose();
+        if (replica >= 0) {
+            try {
+                return replicas.get(replica).getConnection(username, password);
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    public void checkHealth() {
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            try (var connection = replicas.get(replica).getConnection()) {
+                if (connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS)) {
+                    if (healthy.getAndSet(replica, 1) == 0) {
+                        log.info("Replica {} is healthy again", replica);
+                    }
+                } else {
+                    markUnhealthy(replica, null);
+                }
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+    }
+
+    private int choose() {
+        final var candidates = IntStream.range(0, replicas.size()).filter(replica -> healthy.get(replica) == 1)
+                .toArray();
+        if (candidates.length == 0) {
+            return -1;
+        }
+        if (selection == Selection.LEAST_LOADED) {
+            var best = candidates[0];
+            for (final int candidate : candidates) {
+                if (activeConnections(replicas.get(candidate)) < activeConnections(replicas.get(best))) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+        return candidates[Math.floorMod(next.getAndIncrement(), candidates.length)];
+    }
+
+    private void markUnhealthy(final int replica, final SQLException error) {
+        if (healthy.getAndSet(replica, 0) == 1) {
+            log.warn("Replica {} is unhealthy, reads fail over to the remaining replicas or the primary", replica,
+                    error);
+        }
+    }
+
+    private static int activeConnections(final DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+            return hikari.getHikariPoolMXBean().getActiveConnections();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.product.sharding;
+
+/**
+ * Shard the current thread's next connection is taken from. Unset means the
+ * default shard, which also holds users, roles and refresh tokens.
+ */
+public final class ShardContext {
+
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(final Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.product.sharding;
+
+import java.util.HashMap;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+    private final List<ReplicaRoutingDataSource> replicas;
+
+    public ShardRoutingDataSource(final List<DataSource> shards, final List<ReplicaRoutingDataSource> replicas) {
+        this.shards = List.copyOf(shards);
+        this.replicas = List.copyOf(replicas);
+
+        final var targets = new HashMap<Object, Object>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardContext.DEFAULT_SHARD));
+        afterPropertiesSet();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shard(final int shard) {
+        return shards.get(shard);
+    }
+
+    public List<ReplicaRoutingDataSource> replicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.product.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import com.example.product.models.Product;
+
+/**
+ * Column-oriented binary image of the products table.
+ *
+ * <pre>
+ * header   int magic "PCAT", int version, long createdAt, int shardCount, int rows, int heapSize
+ * columns  long id[rows], double price[rows], double taxRate[rows],
+ *          int sku[rows], int name[rows], int description[rows]  (heap offsets, -1 for null)
+ * heap     per string: int length, UTF-8 bytes
+ * trailer  long CRC32 of everything before it
+ * </pre>
+ *
+ * Files are written through a temporary sibling and moved into place, and are
+ * read through a read-only memory mapping.
+ */
+public final class CatalogSnapshot {
+
+    public static final int MAGIC = 0x50434154;
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 4;
+    private static final int ROW_SIZE = 8 + 8 + 8 + 4 + 4 + 4;
+    private static final int TRAILER_SIZE = 8;
+
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Accumulates rows column by column before they are written.
+     */
+    public static class Builder {
+
+        private final int shardCount;
+        private long[] ids = new long[1024];
+        private double[] prices = new double[1024];
+        private double[] taxRates = new double[1024];
+        private int[] skus = new int[1024];
+        private int[] names = new int[1024];
+        private int[] descriptions = new int[1024];
+        private final ByteArrayOutputStream heap = new ByteArrayOutputStream(64 * 1024);
+        private int rows;
+
+        public Builder(final int shardCount) {
+            this.shardCount = shardCount;
+        }
+
+        public Builder add(final long id, final String sku, final String name, final String description,
+                final double price, final double taxRate) {
+            if (rows == ids.length) {
+                final var capacity = rows * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                taxRates = Arrays.copyOf(taxRates, capacity);
+                skus = Arrays.copyOf(skus, capacity);
+                names = Arrays.copyOf(names, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+            }
+            ids[rows] = id;
+            prices[rows] = price;
+            taxRates[rows] = taxRate;
+            skus[rows] = intern(sku);
+            names[rows] = intern(name);
+            descriptions[rows] = intern(description);
+            rows++;
+            return this;
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public void writeTo(final Path path) throws IOException {
+            final var size = (long) HEADER_SIZE + (long) rows * ROW_SIZE + heap.size() + TRAILER_SIZE;
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot of " + size + " bytes exceeds the 2 GiB format limit");
+            }
+
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            final var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).putInt(shardCount)
+                        .putInt(rows).putInt(heap.size());
+                buffer.asLongBuffer().put(ids, 0, rows);
+                buffer.position(buffer.position() + rows * 8);
+                buffer.asDoubleBuffer().put(prices, 0, rows);
+                buffer.position(buffer.position() + rows * 8);
+                buffer.asDoubleBuffer().put(taxRates, 0, rows);
+                buffer.position(buffer.position() + rows * 8);
+                for (final int[] column : new int[][] { skus, names, descriptions }) {
+                    buffer.asIntBuffer().put(column, 0, rows);
+                    buffer.position(buffer.position() + rows * 4);
+                }
+                heap.writeTo(new ByteBufferOutputStream(buffer));
+                buffer.putLong(checksum(buffer, (int) size - TRAILER_SIZE));
+                buffer.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private int intern(final String value) {
+            if (value == null) {
+                return -1;
+            }
+            final var offset = heap.size();
+            final var bytes = value.getBytes(StandardCharsets.UTF_8);
+            heap.write(bytes.length >>> 24);
+            heap.write(bytes.length >>> 16);
+            heap.write(bytes.length >>> 8);
+            heap.write(bytes.length);
+            heap.writeBytes(bytes);
+            return offset;
+        }
+    }
+
+    /**
+     * A validated, memory-mapped snapshot.
+     */
+    public static class Reader {
+
+        private final ByteBuffer buffer;
+        private final long createdAt;
+        private final int shardCount;
+        private final int rows;
+        private final int heapStart;
+
+        private Reader(final ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            if (buffer.limit() < HEADER_SIZE + TRAILER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a catalog snapshot");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported catalog snapshot version " + buffer.getInt(4));
+            }
+            this.createdAt = buffer.getLong(8);
+            this.shardCount = buffer.getInt(16);
+            this.rows = buffer.getInt(20);
+            final var heapSize = buffer.getInt(24);
+            this.heapStart = HEADER_SIZE + rows * ROW_SIZE;
+            if ((long) heapStart + heapSize + TRAILER_SIZE != buffer.limit()) {
+                throw new IOException("Truncated catalog snapshot");
+            }
+            if (checksum(buffer, buffer.limit() - TRAILER_SIZE) != buffer.getLong(buffer.limit() - TRAILER_SIZE)) {
+                throw new IOException("Catalog snapshot checksum mismatch");
+            }
+        }
+
+        public long createdAt() {
+            return createdAt;
+        }
+
+        public int shardCount() {
+            return shardCount;
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public void forEach(final Consumer<Product> consumer) {
+            final var ids = HEADER_SIZE;
+            final var prices = ids + rows * 8;
+            final var taxRates = prices + rows * 8;
+            final var skus = taxRates + rows * 8;
+            final var names = skus + rows * 4;
+            final var descriptions = names + rows * 4;
+
+            for (int row = 0; row < rows; row++) {
+                final var product = new Product();
+                product.setId(buffer.getLong(ids + row * 8));
+                product.setPrice(buffer.getDouble(prices + row * 8));
+                product.setTaxRate(buffer.getDouble(taxRates + row * 8));
+                product.setSku(string(buffer.getInt(skus + row * 4)));
+                product.setName(string(buffer.getInt(names + row * 4)));
+                product.setDescription(string(buffer.getInt(descriptions + row * 4)));
+                consumer.accept(product);
+            }
+        }
+
+        private String string(final int offset) {
+            if (offset < 0) {
+                return null;
+            }
+            final var length = buffer.getInt(heapStart + offset);
+            final var bytes = new byte[length];
+            buffer.get(heapStart + offset + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static Reader open(final Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot exceeds the 2 GiB format limit");
+            }
+            return new Reader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static long checksum(final ByteBuffer buffer, final int length) {
+        final var crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+
+    private static final class ByteBufferOutputStream extends OutputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferOutputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(final int b) {
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            buffer.put(bytes, offset, length);
+        }
+    }
+}
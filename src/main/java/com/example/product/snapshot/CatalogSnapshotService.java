@@ -0,0 +1,222 @@
+package com.example.product.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.product.models.Product;
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ShardContext;
+import com.example.product.sharding.ShardRoutingDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically writes a {@link CatalogSnapshot} of every shard and, on
+ * startup, replaces the seeded products table with the latest snapshot.
+ * Snapshots are off unless {@code product.snapshot.path} names a file owned by
+ * this instance.
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService {
+
+    private static final String SELECT_SQL = "SELECT id, sku, name, description, price, tax_rate FROM products";
+    private static final String INSERT_SQL = "INSERT INTO products (id, sku, name, description, price, tax_rate) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final ShardRoutingDataSource dataSource;
+    private final boolean enabled;
+    private final Path path;
+    private final int batchSize;
+    private final boolean seededOnStartup;
+
+    public CatalogSnapshotService(final ShardRoutingDataSource dataSource,
+            @Value("${product.snapshot.enabled:true}") final boolean enabled,
+            @Value("${product.snapshot.path:}") final String path,
+            @Value("${product.snapshot.batch-size:1000}") final int batchSize,
+            @Value("${spring.jpa.hibernate.ddl-auto:none}") final String ddlAuto) {
+        this.dataSource = dataSource;
+        this.enabled = enabled && !path.isBlank();
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.batchSize = batchSize;
+        this.seededOnStartup = "create".equals(ddlAuto) || "create-drop".equals(ddlAuto);
+        if (enabled && !this.enabled) {
+            log.info("Catalog snapshots are off until product.snapshot.path is set");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${product.snapshot.interval:PT15M}",
+            fixedDelayString = "${product.snapshot.interval:PT15M}")
+    public synchronized void write() {
+        if (!enabled) {
+            return;
+        }
+
+        final var start = System.nanoTime();
+        final var builder = new CatalogSnapshot.Builder(dataSource.shardCount());
+        for (int shard = 0; shard < dataSource.shardCount(); shard++) {
+            final var jdbcTemplate = new JdbcTemplate(dataSource.shard(shard));
+            jdbcTemplate.setFetchSize(batchSize);
+            jdbcTemplate.query(SELECT_SQL, resultSet -> {
+                builder.add(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                        resultSet.getString(4), resultSet.getDouble(5), resultSet.getDouble(6));
+            });
+        }
+
+        try {
+            builder.writeTo(path);
+            log.info("Wrote catalog snapshot of {} products to {} in {} ms", builder.rows(), path,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            log.error("Could not write catalog snapshot to {}", path, e);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void writeOnShutdown() {
+        write();
+    }
+
+    /**
+     * Replaces the products of every shard with the snapshot's rows, handing
+     * each row to {@code consumer} as it is read. Returns false, leaving the
+     * tables untouched, when there is no usable snapshot or a shard may hold
+     * products the snapshot does not: rows with ids past the snapshot's, or
+     * any rows at all unless the shard is empty or is shard 0 just created and
+     * seeded by this process.
+     */
+    public synchronized boolean restore(final Consumer<Product> consumer) {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return false;
+        }
+
+        final CatalogSnapshot.Reader reader;
+        try {
+            reader = CatalogSnapshot.open(path);
+        } catch (IOException e) {
+            log.warn("Ignoring catalog snapshot {}: {}", path, e.getMessage());
+            return false;
+        }
+        if (reader.shardCount() != dataSource.shardCount()) {
+            log.warn("Ignoring catalog snapshot {} taken with {} shards, {} are configured", path,
+                    reader.shardCount(), dataSource.shardCount());
+            return false;
+        }
+
+        final var start = System.nanoTime();
+        final var connections = new ArrayList<Connection>();
+        try {
+            final var inserts = new ArrayList<PreparedStatement>();
+            final var pending = new int[dataSource.shardCount()];
+            for (int shard = 0; shard < dataSource.shardCount(); shard++) {
+                final var connection = dataSource.shard(shard).getConnection();
+                connections.add(connection);
+                connection.setAutoCommit(false);
+                if (holdsUnseededProducts(shard, connection)) {
+                    log.warn("Not restoring catalog snapshot {}: shard {} already holds products that were not "
+                            + "seeded on this startup", path, shard);
+                    connections.forEach(CatalogSnapshotService::rollback);
+                    return false;
+                }
+                try (var delete = connection.createStatement()) {
+                    delete.executeUpdate("DELETE FROM products");
+                }
+                inserts.add(connection.prepareStatement(INSERT_SQL));
+            }
+
+            reader.forEach(product -> {
+                final var shard = ProductShards.shardOfId(product.getId());
+                try {
+                    final var insert = inserts.get(shard);
+                    insert.setLong(1, product.getId());
+                    insert.setString(2, product.getSku());
+                    insert.setString(3, product.getName());
+                    insert.setString(4, product.getDescription());
+                    insert.setDouble(5, product.getPrice());
+                    insert.setDouble(6, product.getTaxRate());
+                    insert.addBatch();
+                    if (++pending[shard] == batchSize) {
+                        insert.executeBatch();
+                        pending[shard] = 0;
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                consumer.accept(product);
+            });
+
+            for (int shard = 0; shard < connections.size(); shard++) {
+                inserts.get(shard).executeBatch();
+                connections.get(shard).commit();
+                restartIdentity(shard, connections.get(shard));
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.error("Could not restore catalog snapshot {}, keeping the existing products", path, e);
+            connections.forEach(CatalogSnapshotService::rollback);
+            return false;
+        } finally {
+            connections.forEach(CatalogSnapshotService::close);
+        }
+
+        log.info("Restored {} products from catalog snapshot {} taken at {} in {} ms", reader.rows(), path,
+                Instant.ofEpochMilli(reader.createdAt()), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return true;
+    }
+
+    /**
+     * Shard 0 rows seeded by this process are replaced whatever their ids, as
+     * the seeded ids say nothing about what the snapshot is missing; any other
+     * shard must be empty, so products written since the snapshot are never
+     * deleted.
+     */
+    private boolean holdsUnseededProducts(final int shard, final Connection connection) throws SQLException {
+        if (shard == ShardContext.DEFAULT_SHARD && seededOnStartup) {
+            return false;
+        }
+        try (var statement = connection.createStatement();
+                var count = statement.executeQuery("SELECT COUNT(*) FROM products")) {
+            count.next();
+            return count.getLong(1) > 0;
+        }
+    }
+
+    private static void restartIdentity(final int shard, final Connection connection) throws SQLException {
+        try (var statement = connection.createStatement();
+                var maxId = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM products")) {
+            maxId.next();
+            statement.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH "
+                    + Math.max(ProductShards.firstId(shard), maxId.getLong(1) + 1));
+        }
+    }
+
+    private static void rollback(final Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.warn("Rollback of catalog snapshot restore failed", e);
+        }
+    }
+
+    private static void close(final Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Could not close catalog snapshot connection", e);
+        }
+    }
+}
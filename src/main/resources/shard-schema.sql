@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS products (id bigint GENERATED BY DEFAULT AS IDENTITY, description varchar(255), name varchar(255), price float(53) NOT NULL, sku varchar(255) NOT NULL, tax_rate float(53) NOT NULL, PRIMARY KEY (id));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_products_sku ON products (sku);
+CREATE INDEX IF NOT EXISTS ix_products_name ON products (name);
+CREATE INDEX IF NOT EXISTS ix_products_price ON products (price);
+CREATE INDEX IF NOT EXISTS ix_products_tax_rate ON products (tax_rate);
@@ -0,0 +1,58 @@
+package com.example.product;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Calls the API through MockMvc as an authenticated user.
+ */
+abstract class ApiTestSupport {
+
+	@Autowired
+	protected MockMvc mockMvc;
+
+	@Autowired
+	protected ObjectMapper objectMapper;
+
+	@Autowired
+	private JwtEncoder jwtEncoder;
+
+	protected JsonNode perform(final MockHttpServletRequestBuilder request) throws Exception {
+		return perform(request, null, status().isOk());
+	}
+
+	protected JsonNode perform(final MockHttpServletRequestBuilder request, final Object body,
+			final ResultMatcher expected) throws Exception {
+		request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token());
+		if (body != null) {
+			request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+		}
+		final var response = mockMvc.perform(request).andExpect(expected).andReturn().getResponse();
+		return objectMapper.readTree(response.getContentAsString());
+	}
+
+	protected String token() {
+		final var now = Instant.now();
+		return jwtEncoder.encode(JwtEncoderParameters.from(JwtClaimsSet.builder()
+				.subject("user@data.io")
+				.issuedAt(now)
+				.expiresAt(now.plus(1, ChronoUnit.HOURS))
+				.build())).getTokenValue();
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.example.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ShardRoutingDataSource;
+
+/**
+ * Checks that a sku already taken is answered with 409, whether the sku index
+ * or the database's unique index catches it, and that products are found by sku.
+ */
+@TwoShardTest
+class DuplicateSkuIntegrationTests extends ApiTestSupport {
+
+	@Autowired
+	private ShardRoutingDataSource dataSource;
+
+	@Autowired
+	private ProductShards shards;
+
+	@Test
+	void skuTakenByAProductThisInstanceWroteIsRejected() throws Exception {
+		final var first = perform(post("/v1/product"), product("DUP-KNOWN-A"), status().isOk());
+		final var other = perform(post("/v1/product"), product("DUP-KNOWN-B"), status().isOk());
+
+		final var conflict = perform(post("/v1/product"), product("DUP-KNOWN-A"), status().isConflict());
+		assertThat(conflict.get("code").asInt()).isEqualTo(409);
+		assertThat(conflict.get("msg").asText()).contains("DUP-KNOWN-A");
+		perform(put("/v1/product/{id}", other.get("id").asLong()), product("DUP-KNOWN-A"), status().isConflict());
+
+		assertThat(rowsWithSku("DUP-KNOWN-A")).isOne();
+		assertThat(perform(get("/v1/product/sku/{sku}", "DUP-KNOWN-A")).get("id").asLong())
+				.isEqualTo(first.get("id").asLong());
+		assertThat(perform(get("/v1/product/sku/{sku}", "DUP-KNOWN-B")).get("id").asLong())
+				.isEqualTo(other.get("id").asLong());
+	}
+
+	@Test
+	void skuTakenByAConcurrentInsertIsRejectedByTheUniqueIndex() throws Exception {
+		// Rows inserted behind this instance's back are unknown to its sku index, so only the database can refuse them.
+		for (int shard = 0; shard < shards.count(); shard++) {
+			final var sku = skuOn(shard, "DUP-RACE-");
+			final var jdbc = new JdbcTemplate(dataSource.shard(shard));
+			jdbc.update("INSERT INTO products (sku, name, description, price, tax_rate) VALUES (?, ?, ?, ?, ?)",
+					sku, "Inserted elsewhere", "Written by another instance", 1.0, 1.0);
+			try {
+				final var conflict = perform(post("/v1/product"), product(sku), status().isConflict());
+				assertThat(conflict.get("msg").asText()).contains(sku);
+				assertThat(rowsWithSku(sku)).isOne();
+			} finally {
+				// The shared context's indexes never saw this row, so leave the shard as they know it.
+				jdbc.update("DELETE FROM products WHERE sku = ?", sku);
+			}
+		}
+	}
+
+	@Test
+	void unknownSkuIsNotFound() throws Exception {
+		final var missing = perform(get("/v1/product/sku/{sku}", "DUP-MISSING"), null, status().isNotFound());
+		assertThat(missing.get("code").asInt()).isEqualTo(404);
+	}
+
+	private String skuOn(final int shard, final String prefix) {
+		return IntStream.iterate(0, i -> i + 1)
+				.mapToObj(i -> prefix + i)
+				.filter(sku -> shards.shardOf(sku) == shard)
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private long rowsWithSku(final String sku) {
+		return IntStream.range(0, shards.count())
+				.mapToLong(shard -> new JdbcTemplate(dataSource.shard(shard))
+						.queryForObject("SELECT COUNT(*) FROM products WHERE sku = ?", Long.class, sku))
+				.sum();
+	}
+
+	private static Map<String, Object> product(final String sku) {
+		return Map.of("sku", sku, "productName", "Duplicate check", "description", "Sku uniqueness",
+				"price", 10.0, "taxRate", 1.0);
+	}
+
+}
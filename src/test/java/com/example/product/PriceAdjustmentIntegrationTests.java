@@ -0,0 +1,98 @@
+package com.example.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ShardRoutingDataSource;
+import com.fasterxml.jackson.databind.JsonNode;
+
+@TwoShardTest
+class PriceAdjustmentIntegrationTests extends ApiTestSupport {
+
+	@Autowired
+	private ProductShards shards;
+
+	@Autowired
+	private ShardRoutingDataSource dataSource;
+
+	@Test
+	void adjustmentUpdatesMatchingProductsOnEveryShard() throws Exception {
+		final var sku = IntStream.iterate(0, i -> i + 1).mapToObj(i -> "ADJ-" + i)
+				.filter(candidate -> shards.shardOf(candidate) == 1).findFirst().orElseThrow();
+		final var created = perform(post("/v1/product"), Map.of("sku", sku, "productName", "Adjusted",
+				"description", "Adjusted on shard 1", "price", 100.0, "taxRate", 10.0), status().isOk());
+		final var id = created.get("id").asLong();
+		assertThat(ProductShards.shardOfId(id)).isEqualTo(1);
+
+		final var started = perform(post("/v1/product/adjustments"),
+				Map.of("target", "TAX_RATE", "operation", "ADD", "value", 1.0), status().isAccepted());
+
+		final var job = awaitFinished(started);
+		assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+		assertThat(job.get("updated").asLong()).isEqualTo(job.get("matched").asLong()).isEqualTo(total());
+		assertThat(new JdbcTemplate(dataSource.shard(1))
+				.queryForObject("SELECT tax_rate FROM products WHERE id = ?", Double.class, id)).isEqualTo(11.0);
+	}
+
+	@Test
+	void adjustmentRefreshesTheIndexedValuesOfTheRowsItChanged() throws Exception {
+		final var adjusted = perform(post("/v1/product"), Map.of("sku", "ADJ-INDEXED-A", "productName", "Adjusted",
+				"description", "Price raised by the job", "price", 500_000.0, "taxRate", 1.0), status().isOk());
+		final var untouched = perform(post("/v1/product"), Map.of("sku", "ADJ-INDEXED-B", "productName", "Untouched",
+				"description", "Price left as it was", "price", 500_000.5, "taxRate", 1.0), status().isOk());
+
+		final var job = awaitFinished(perform(post("/v1/product/adjustments"), Map.of("target", "PRICE",
+				"operation", "ADD", "value", 1.0, "priceAbove", 499_999.0, "priceBelow", 500_000.2),
+				status().isAccepted()));
+		assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+		assertThat(job.get("updated").asLong()).isEqualTo(1);
+
+		// The most expensive page comes from the in-memory price ordering, which the job must have refreshed.
+		final var page = perform(get("/v1/product/list").param("sort", "price").param("direction", "DESC")
+				.param("pageSize", "2"), null, status().isOk());
+		assertThat(page.get("content").get(0).get("id").asLong()).isEqualTo(adjusted.get("id").asLong());
+		assertThat(page.get("content").get(0).get("price").asDouble()).isEqualTo(500_001.0);
+		assertThat(page.get("content").get(1).get("id").asLong()).isEqualTo(untouched.get("id").asLong());
+	}
+
+	@Test
+	void adjustmentThatWouldLeaveInvalidValuesIsRejected() throws Exception {
+		perform(post("/v1/product/adjustments"), Map.of("target", "PRICE", "operation", "SET", "value", "NaN"),
+				status().isBadRequest());
+		perform(post("/v1/product/adjustments"), Map.of("target", "PRICE", "operation", "PERCENT", "value", -250),
+				status().isBadRequest());
+		perform(post("/v1/product/adjustments"), Map.of("target", "TAX_RATE", "operation", "ADD", "value", -1e9,
+				"dryRun", true), status().isBadRequest());
+
+		assertThat(new JdbcTemplate(dataSource.shard(0))
+				.queryForObject("SELECT COUNT(*) FROM products WHERE price < 0 OR price <> price", Long.class))
+				.isZero();
+	}
+
+	private JsonNode awaitFinished(final JsonNode started) throws Exception {
+		var job = started;
+		for (int attempt = 0; attempt < 100 && "RUNNING".equals(job.get("status").asText()); attempt++) {
+			Thread.sleep(100);
+			job = perform(get("/v1/product/adjustments/{id}", started.get("id").asText()), null, status().isOk());
+		}
+		return job;
+	}
+
+	private long total() {
+		return IntStream.range(0, shards.count())
+				.mapToLong(shard -> new JdbcTemplate(dataSource.shard(shard))
+						.queryForObject("SELECT COUNT(*) FROM products", Long.class))
+				.sum();
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.example.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ShardRoutingDataSource;
+
+/**
+ * Checks list pages that select only some fields with {@code fields=}.
+ */
+@TwoShardTest
+class ProductFieldsIntegrationTests extends ApiTestSupport {
+
+	@Autowired
+	private ShardRoutingDataSource dataSource;
+
+	@Autowired
+	private ProductShards shards;
+
+	@Test
+	void onlyTheRequestedFieldsAreReturned() throws Exception {
+		// Id and the sort column are read to order and merge the page, but neither was asked for.
+		for (final String sort : List.of("name", "taxRate")) {
+			final var page = perform(get("/v1/product/list").param("fields", "sku, price").param("sort", sort)
+					.param("pageSize", "5"));
+			assertThat(page.get("content")).hasSize(5).allSatisfy(product -> assertThat(product.properties())
+					.extracting(Map.Entry::getKey).containsExactly("sku", "price"));
+		}
+
+		final var page = perform(get("/v1/product/list").param("fields", "productName,id").param("sort", "name"));
+		assertThat(page.get("content")).allSatisfy(product -> assertThat(product.properties())
+				.extracting(Map.Entry::getKey).containsExactly("id", "productName"));
+	}
+
+	@Test
+	void shardPagesAreMergedInTheRequestedOrder() throws Exception {
+		// Tax rates above any seeded one that alternate between shards, with a tie broken by id across them.
+		final var first = create(0, "FIELDS-MERGE-A-", 1_004.0);
+		create(1, "FIELDS-MERGE-B-", 1_003.0);
+		create(0, "FIELDS-MERGE-C-", 1_002.0);
+		final var tiedOnShard0 = create(0, "FIELDS-MERGE-D-", 1_001.0);
+		final var tiedOnShard1 = create(1, "FIELDS-MERGE-E-", 1_001.0);
+
+		// taxRate is not presorted, so both shards are queried and their projected rows merged.
+		final var expected = rows().stream()
+				.sorted(Comparator.comparing((Map<String, Object> row) -> ((Number) row.get("TAX_RATE")).doubleValue())
+						.reversed()
+						.thenComparing(row -> ((Number) row.get("ID")).longValue()))
+				.skip(3)
+				.limit(3)
+				.map(row -> (String) row.get("SKU"))
+				.toList();
+		assertThat(expected).startsWith(tiedOnShard0, tiedOnShard1);
+
+		final var page = perform(get("/v1/product/list").param("fields", "sku").param("sort", "taxRate")
+				.param("direction", "DESC").param("pageNumber", "1").param("pageSize", "3"));
+		final var skus = new ArrayList<String>();
+		page.get("content").forEach(product -> skus.add(product.get("sku").asText()));
+		assertThat(skus).containsExactlyElementsOf(expected);
+		assertThat(page.get("totalElements").asLong()).isEqualTo(rows().size());
+
+		final var top = perform(get("/v1/product/list").param("fields", "sku").param("sort", "taxRate")
+				.param("direction", "DESC").param("pageSize", "1"));
+		assertThat(top.get("content").get(0).get("sku").asText()).isEqualTo(first);
+	}
+
+	@Test
+	void unknownFieldsAreRejected() throws Exception {
+		final var unknown = perform(get("/v1/product/list").param("fields", "sku,colour"), null,
+				status().isBadRequest());
+		assertThat(unknown.get("msg").asText()).contains("colour");
+
+		perform(get("/v1/product/list").param("fields", " , "), null, status().isBadRequest());
+	}
+
+	private String create(final int shard, final String prefix, final double taxRate) throws Exception {
+		final var sku = IntStream.iterate(0, i -> i + 1).mapToObj(i -> prefix + i)
+				.filter(candidate -> shards.shardOf(candidate) == shard).findFirst().orElseThrow();
+		perform(post("/v1/product"), Map.of("sku", sku, "productName", "Merged", "description", "Sharded merge order",
+				"price", 10.0, "taxRate", taxRate), status().isOk());
+		return sku;
+	}
+
+	private List<Map<String, Object>> rows() {
+		return IntStream.range(0, shards.count())
+				.mapToObj(shard -> new JdbcTemplate(dataSource.shard(shard))
+						.queryForList("SELECT id, sku, tax_rate FROM products"))
+				.flatMap(List::stream)
+				.toList();
+	}
+
+}
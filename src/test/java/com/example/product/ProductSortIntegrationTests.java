@@ -0,0 +1,95 @@
+package com.example.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product.models.Product;
+import com.example.product.models.ProductSortField;
+import com.example.product.services.ProductSortIndex;
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ShardRoutingDataSource;
+
+/**
+ * Checks which list orders are accepted and that pages served from the sort
+ * index match the order the shards themselves return.
+ */
+@TwoShardTest
+class ProductSortIntegrationTests extends ApiTestSupport {
+
+	@Autowired
+	private ShardRoutingDataSource dataSource;
+
+	@Autowired
+	private ProductShards shards;
+
+	@Autowired
+	private ProductSortIndex sortIndex;
+
+	@Test
+	void unsupportedSortsAreRejected() throws Exception {
+		final var description = perform(get("/v1/product/list").param("sort", "description"), null,
+				status().isBadRequest());
+		assertThat(description.get("msg").asText()).contains("description");
+
+		perform(get("/v1/product/list").param("sort", "price").param("direction", "SIDEWAYS"), null,
+				status().isBadRequest());
+	}
+
+	@Test
+	void presortedPagesMatchTheDatabaseOrder() throws Exception {
+		sortIndex.reconcile();
+		final var total = (int) IntStream.range(0, shards.count()).mapToLong(this::count).sum();
+
+		// The seed data has products sharing a name or price, so the id tie-break is checked in both directions.
+		for (final ProductSortField field : ProductSortField.values()) {
+			if (!field.isPresorted()) {
+				continue;
+			}
+			for (final Sort.Direction direction : Sort.Direction.values()) {
+				assertThat(sortIndex.page(PageRequest.of(0, total, Sort.by(direction, field.getProperty()))))
+						.isPresent();
+				final var page = perform(get("/v1/product/list").param("sort", field.getProperty())
+						.param("direction", direction.name()).param("pageSize", String.valueOf(total)));
+				final var listed = new ArrayList<Long>();
+				page.get("content").forEach(product -> listed.add(product.get("id").asLong()));
+				assertThat(listed).as("%s %s", field, direction)
+						.containsExactlyElementsOf(sortedByShards(field, direction));
+			}
+		}
+	}
+
+	/**
+	 * Ids ordered by each shard's database, merged the way list pages that
+	 * miss the sort index are.
+	 */
+	private List<Long> sortedByShards(final ProductSortField field, final Sort.Direction direction) {
+		final var sort = Sort.by(direction, field.getProperty());
+		final var pages = IntStream.range(0, shards.count())
+				.mapToObj(shard -> new JdbcTemplate(dataSource.shard(shard)).query(
+						"SELECT id, sku, name, price, tax_rate FROM products ORDER BY " + field.getProperty() + " "
+								+ direction.name() + ", id",
+						new BeanPropertyRowMapper<>(Product.class)))
+				.toList();
+		final var total = pages.stream().mapToInt(List::size).sum();
+		return ProductShards.merge(pages, ProductSortField.comparator(sort), 0, total).stream()
+				.map(Product::getId)
+				.toList();
+	}
+
+	private long count(final int shard) {
+		return new JdbcTemplate(dataSource.shard(shard)).queryForObject("SELECT COUNT(*) FROM products", Long.class);
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.example.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.example.product.services.ProductBloomFilter;
+import com.example.product.services.ProductIndexInitializer;
+import com.example.product.services.SkuIndex;
+import com.example.product.sharding.ReplicaRoutingDataSource;
+import com.example.product.sharding.ShardRoutingDataSource;
+
+/**
+ * Runs the replica on its own copy of the products table, see
+ * replica-schema.sql, so the tests can tell which side served a statement.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replica_it;DB_CLOSE_DELAY=-1",
+		"product.sharding.replicas[0].url=jdbc:h2:mem:replica_it;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+		"product.sharding.replicas[0].username=sa",
+		"product.sharding.replicas[0].password=password",
+		"product.sharding.read-your-writes-window=PT0S",
+		"product.snapshot.enabled=false" })
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTests extends ApiTestSupport {
+
+	@Autowired
+	private ShardRoutingDataSource dataSource;
+
+	@Autowired
+	private ProductBloomFilter bloomFilter;
+
+	@Autowired
+	private ProductIndexInitializer indexInitializer;
+
+	@Autowired
+	private SkuIndex skuIndex;
+
+	private JdbcTemplate primary;
+
+	@BeforeEach
+	void copyProductsToReplica() {
+		// Opening a replica connection runs replica-schema.sql.
+		dataSource.replicas().forEach(ReplicaRoutingDataSource::checkHealth);
+		primary = new JdbcTemplate(dataSource);
+		primary.update("DELETE FROM replica.products");
+		primary.update("INSERT INTO replica.products (id, description, name, price, sku, tax_rate) "
+				+ "SELECT id, description, name, price, sku, tax_rate FROM public.products");
+	}
+
+	@Test
+	void updateWritesToThePrimaryOnly() throws Exception {
+		for (final Long id : ids(2)) {
+			final var before = row("replica", id);
+
+			update(id, status().isOk());
+
+			assertThat(row("public", id).get("NAME")).isEqualTo("Updated " + id);
+			assertThat(row("replica", id)).isEqualTo(before);
+		}
+	}
+
+	@Test
+	void updateFindsProductsTheReplicaHasNotSeenYet() throws Exception {
+		for (final Long id : ids(2)) {
+			primary.update("DELETE FROM replica.products WHERE id = ?", id);
+
+			// The row is only on the primary, so the update's lookup must not run on the replica.
+			update(id, status().isOk());
+
+			assertThat(row("public", id).get("NAME")).isEqualTo("Updated " + id);
+			assertThat(primary.queryForObject("SELECT COUNT(*) FROM replica.products WHERE id = ?", Long.class, id))
+					.isZero();
+		}
+	}
+
+	@Test
+	void indexesAreRebuiltFromThePrimary() {
+		final var id = 900_000L;
+		primary.update("INSERT INTO public.products (id, description, name, price, sku, tax_rate) "
+				+ "VALUES (?, 'Only on the primary', 'Unreplicated', 1.0, 'UNREPLICATED-1', 1.0)", id);
+
+		bloomFilter.rebuild();
+		indexInitializer.afterSingletonsInstantiated();
+
+		assertThat(bloomFilter.mightContainId(id)).isTrue();
+		assertThat(bloomFilter.mightContainSku("UNREPLICATED-1")).isTrue();
+		assertThat(skuIndex.idOf("UNREPLICATED-1")).contains(id);
+	}
+
+	private List<Long> ids(final int count) {
+		return primary.queryForList("SELECT id FROM public.products ORDER BY id LIMIT ?", Long.class, count);
+	}
+
+	private Map<String, Object> row(final String schema, final long id) {
+		return primary.queryForMap("SELECT * FROM " + schema + ".products WHERE id = ?", id);
+	}
+
+	private void update(final long id, final ResultMatcher expected) throws Exception {
+		final var current = row("public", id);
+		final var body = Map.of(
+				"sku", current.get("SKU"),
+				"productName", "Updated " + id,
+				"description", current.get("DESCRIPTION"),
+				"price", current.get("PRICE"),
+				"taxRate", current.get("TAX_RATE"));
+
+		perform(put("/v1/product/{id}", id), body, expected);
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.example.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * Checks what the {@code audit} logger receives for requests.
+ */
+@TwoShardTest
+class RequestAuditIntegrationTests extends ApiTestSupport {
+
+	private final Logger audit = (Logger) LoggerFactory.getLogger("audit");
+
+	private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+	@BeforeEach
+	void attach() {
+		events.start();
+		audit.addAppender(events);
+	}
+
+	@AfterEach
+	void detach() {
+		audit.detachAppender(events);
+		events.stop();
+	}
+
+	@Test
+	void requestsTheSecurityChainRejectsAreAudited() throws Exception {
+		mockMvc.perform(get("/v1/product/list").param("sort", "taxRate")).andExpect(status().isUnauthorized());
+
+		final var record = awaitRecord("GET", "/v1/product/list");
+		assertThat(record.get("status").asInt()).isEqualTo(401);
+		assertThat(record.get("principal").isNull()).isTrue();
+		assertThat(record.get("sqlCount").asInt()).isZero();
+	}
+
+	@Test
+	void statementsRunOnEveryShardAreCounted() throws Exception {
+		// Sorting by a column the sort index does not keep queries both shards on the scatter pool.
+		perform(get("/v1/product/list").param("sort", "taxRate").param("pageSize", "3"));
+
+		final var record = awaitRecord("GET", "/v1/product/list");
+		assertThat(record.get("status").asInt()).isEqualTo(200);
+		assertThat(record.get("principal").asText()).isEqualTo("user@data.io");
+		assertThat(record.get("sqlCount").asInt()).isGreaterThanOrEqualTo(2);
+	}
+
+	private JsonNode awaitRecord(final String method, final String endpoint) throws Exception {
+		for (int attempt = 0; attempt < 100; attempt++) {
+			final var record = records().stream()
+					.filter(line -> method.equals(line.get("method").asText())
+							&& endpoint.equals(line.get("endpoint").asText()))
+					.findFirst();
+			if (record.isPresent()) {
+				return record.get();
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("No audit record for " + method + " " + endpoint);
+	}
+
+	private List<JsonNode> records() throws Exception {
+		final List<ILoggingEvent> batches;
+		synchronized (events) {
+			batches = List.copyOf(events.list);
+		}
+		final var lines = new ArrayList<JsonNode>();
+		for (final ILoggingEvent event : batches) {
+			// Each event is one batch, one JSON line per record.
+			for (final String line : event.getFormattedMessage().split("\n")) {
+				lines.add(objectMapper.readTree(line));
+			}
+		}
+		return lines;
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.example.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.product.services.ProductSortIndex;
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ShardRoutingDataSource;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Checks that requests touching both shards see each shard's own rows.
+ */
+@TwoShardTest
+class ShardingIntegrationTests extends ApiTestSupport {
+
+	@Autowired
+	private ShardRoutingDataSource dataSource;
+
+	@Autowired
+	private ProductShards shards;
+
+	@Autowired
+	private ProductSortIndex sortIndex;
+
+	@Test
+	void rebalanceMultiGetAndListSpanBothShards() throws Exception {
+		// Leave one misplaced product on both shards, as a rebalance that stopped between its insert and delete would.
+		final var interrupted = new JdbcTemplate(dataSource.shard(0))
+				.queryForList("SELECT id, sku, name FROM products ORDER BY id").stream()
+				.filter(row -> shards.shardOf((String) row.get("SKU")) == 1).findFirst().orElseThrow();
+		final var shard1 = new JdbcTemplate(dataSource.shard(1));
+		shard1.update("INSERT INTO products (sku, name, description, price, tax_rate) VALUES (?, ?, ?, ?, ?)",
+				interrupted.get("SKU"), "Stale copy", "Copied before the rebalance stopped", 1.0, 1.0);
+		final var copyId = shard1.queryForObject("SELECT id FROM products WHERE sku = ?", Long.class,
+				interrupted.get("SKU"));
+
+		final var total = count(0) + count(1);
+		final var onShard1 = count(1);
+
+		final var report = perform(post("/v1/shards/rebalance"));
+		assertThat(report.get("shards").asInt()).isEqualTo(2);
+		assertThat(report.get("scanned").asLong()).isEqualTo(total);
+		assertThat(report.get("moved").asLong()).isPositive();
+
+		// Every moved product now lives on shard 1 only, and nothing was lost or duplicated.
+		final var moves = moves();
+		assertThat(moves).hasSize((int) report.get("moved").asLong());
+		assertThat(moves.values()).allMatch(id -> ProductShards.shardOfId(id) == 1);
+		assertThat(moves).containsEntry(((Number) interrupted.get("ID")).longValue(), copyId);
+		assertThat(shard1.queryForObject("SELECT name FROM products WHERE id = ?", String.class, copyId))
+				.isEqualTo(interrupted.get("NAME"));
+		assertThat(count(1)).isEqualTo(onShard1 + moves.size() - 1);
+		assertThat(count(0) + count(1)).isEqualTo(total - 1);
+		assertThat(perform(post("/v1/shards/rebalance")).get("moved").asLong()).isZero();
+
+		final var shard0Id = new JdbcTemplate(dataSource.shard(0)).queryForObject("SELECT MIN(id) FROM products",
+				Long.class);
+		final var shard1Id = moves.values().iterator().next();
+
+		final var lookup = perform(get("/v1/product").param("ids", shard0Id + "," + shard1Id));
+		assertThat(lookup.get("missingIds")).isEmpty();
+		final var found = new HashSet<Long>();
+		lookup.get("products").forEach(product -> found.add(product.get("id").asLong()));
+		assertThat(found).containsExactlyInAnyOrder(shard0Id, shard1Id);
+
+		final var page = perform(get("/v1/product/list").param("pageSize", String.valueOf(total)));
+		final var listed = new HashSet<Long>();
+		page.get("content").forEach(product -> listed.add(product.get("id").asLong()));
+		assertThat(listed).hasSize((int) total - 1).contains(shard0Id).containsAll(moves.values());
+	}
+
+	@Test
+	void listPagesPickUpProductsWrittenByOtherInstances() throws Exception {
+		final var sku = IntStream.iterate(0, i -> i + 1).mapToObj(i -> "ELSEWHERE-" + i)
+				.filter(candidate -> shards.shardOf(candidate) == 1).findFirst().orElseThrow();
+		final var shard1 = new JdbcTemplate(dataSource.shard(1));
+		shard1.update("INSERT INTO products (sku, name, description, price, tax_rate) VALUES (?, ?, ?, ?, ?)", sku,
+				"Written elsewhere", "Inserted without this instance", 1.0, 1.0);
+		final var id = shard1.queryForObject("SELECT id FROM products WHERE sku = ?", Long.class, sku);
+
+		sortIndex.reconcile();
+		assertThat(listedIds()).contains(id).hasSize((int) (count(0) + count(1)));
+
+		shard1.update("DELETE FROM products WHERE id = ?", id);
+		sortIndex.reconcile();
+		assertThat(listedIds()).doesNotContain(id).hasSize((int) (count(0) + count(1)));
+	}
+
+	private Set<Long> listedIds() throws Exception {
+		final var total = count(0) + count(1);
+		final var page = perform(get("/v1/product/list").param("pageSize", String.valueOf(total + 1))
+				.param("direction", "DESC"));
+		assertThat(page.get("totalElements").asLong()).isEqualTo(total);
+		final var listed = new HashSet<Long>();
+		page.get("content").forEach(product -> listed.add(product.get("id").asLong()));
+		return listed;
+	}
+
+	private Map<Long, Long> moves() throws Exception {
+		final var moves = new LinkedHashMap<Long, Long>();
+		var after = 0L;
+		while (true) {
+			final var page = perform(get("/v1/shards/moves").param("afterOldId", String.valueOf(after))
+					.param("limit", "100"));
+			if (page.isEmpty()) {
+				return moves;
+			}
+			for (final JsonNode move : page) {
+				after = move.get("oldId").asLong();
+				moves.put(after, move.get("newId").asLong());
+			}
+		}
+	}
+
+	private long count(final int shard) {
+		return new JdbcTemplate(dataSource.shard(shard)).queryForObject("SELECT COUNT(*) FROM products", Long.class);
+	}
+
+}
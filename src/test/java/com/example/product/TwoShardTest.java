@@ -0,0 +1,27 @@
+package com.example.product;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Boots the service on two H2 shards. Every test class carrying it shares one
+ * application context, and so the same shard databases.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+		"product.sharding.shards[0].url=jdbc:h2:mem:sharding_it_0;DB_CLOSE_DELAY=-1",
+		"product.sharding.shards[0].username=sa",
+		"product.sharding.shards[0].password=password",
+		"product.sharding.shards[1].url=jdbc:h2:mem:sharding_it_1;DB_CLOSE_DELAY=-1",
+		"product.sharding.shards[1].username=sa",
+		"product.sharding.shards[1].password=password",
+		"product.snapshot.enabled=false" })
+@AutoConfigureMockMvc
+@interface TwoShardTest {
+}
@@ -0,0 +1,55 @@
+package com.example.product.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+
+	private static final int INSERTIONS = 10_000;
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+	private static final int PROBES = 100_000;
+
+	@Test
+	void hasNoFalseNegatives() {
+		final var filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+		LongStream.range(0, INSERTIONS).forEach(key -> {
+			filter.add(key);
+			filter.add("SKU-" + key);
+		});
+
+		assertThat(LongStream.range(0, INSERTIONS)).allMatch(filter::mightContain);
+		assertThat(LongStream.range(0, INSERTIONS)).allMatch(key -> filter.mightContain("SKU-" + key));
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheTarget() {
+		final var ids = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+		final var skus = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+		LongStream.range(0, INSERTIONS).forEach(key -> {
+			ids.add(key);
+			skus.add("SKU-" + key);
+		});
+
+		final var idRate = (double) LongStream.range(INSERTIONS, INSERTIONS + PROBES).filter(ids::mightContain)
+				.count() / PROBES;
+		final var skuRate = (double) LongStream.range(INSERTIONS, INSERTIONS + PROBES)
+				.filter(key -> skus.mightContain("SKU-" + key)).count() / PROBES;
+
+		assertThat(idRate).isLessThan(FALSE_POSITIVE_RATE * 2);
+		assertThat(skuRate).isLessThan(FALSE_POSITIVE_RATE * 2);
+		assertThat(ids.expectedFalsePositiveRate()).isBetween(FALSE_POSITIVE_RATE / 2, FALSE_POSITIVE_RATE * 2);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		final var filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+
+		assertThat(LongStream.range(0, 1000)).noneMatch(filter::mightContain);
+		assertThat(filter.mightContain("SKU-0")).isFalse();
+		assertThat(filter.expectedFalsePositiveRate()).isZero();
+	}
+
+}
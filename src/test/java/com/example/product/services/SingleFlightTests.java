@@ -0,0 +1,172 @@
+package com.example.product.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTests {
+
+	private static final int CALLERS = 8;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+	private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		final var release = new CountDownLatch(1);
+		final var loads = new AtomicInteger();
+
+		final var results = callConcurrently(() -> {
+			loads.incrementAndGet();
+			await(release);
+			return "value";
+		});
+		awaitCoalesced(CALLERS - 1);
+		release.countDown();
+
+		for (final Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		}
+		assertThat(loads).hasValue(1);
+		assertThat(count("executed")).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentCallersShareTheLoadersException() throws Exception {
+		final var release = new CountDownLatch(1);
+		final var failure = new IllegalStateException("load failed");
+
+		final var results = callConcurrently(() -> {
+			await(release);
+			throw failure;
+		});
+		awaitCoalesced(CALLERS - 1);
+		release.countDown();
+
+		for (final Future<String> result : results) {
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+					.cause().isSameAs(failure);
+		}
+	}
+
+	@Test
+	void loadsAgainOnceTheCallCompleted() {
+		final var loads = new AtomicInteger();
+
+		singleFlight.load("key", () -> "first " + loads.incrementAndGet());
+		assertThatThrownBy(() -> singleFlight.load("key", () -> {
+			loads.incrementAndGet();
+			throw new IllegalStateException("second");
+		})).hasMessage("second");
+
+		assertThat(singleFlight.load("key", () -> "third " + loads.incrementAndGet())).isEqualTo("third 3");
+	}
+
+	@Test
+	void differentKeysDoNotCoalesce() throws Exception {
+		final var release = new CountDownLatch(1);
+		final var first = CompletableFuture.supplyAsync(() -> singleFlight.load("a", () -> {
+			await(release);
+			return "a";
+		}), executor);
+
+		assertThat(singleFlight.load("b", () -> "b")).isEqualTo("b");
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+		assertThat(count("coalesced")).isZero();
+	}
+
+	@Test
+	void callersDoNotJoinACallStartedBeforeAnInvalidation() throws Exception {
+		final var release = new CountDownLatch(1);
+		final var started = new CountDownLatch(1);
+		final var stale = CompletableFuture.supplyAsync(() -> singleFlight.load("key", () -> {
+			started.countDown();
+			await(release);
+			return "before write";
+		}), executor);
+		started.await();
+
+		singleFlight.invalidate("key");
+
+		assertThat(singleFlight.load("key", () -> "after write")).isEqualTo("after write");
+		release.countDown();
+		assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+		assertThat(count("coalesced")).isZero();
+	}
+
+	@Test
+	void invalidateAllAppliesToEveryKey() throws Exception {
+		final var release = new CountDownLatch(1);
+		final var started = new CountDownLatch(2);
+		final var stale = new ArrayList<CompletableFuture<String>>();
+		for (final String key : new String[] { "a", "b" }) {
+			stale.add(CompletableFuture.supplyAsync(() -> singleFlight.load(key, () -> {
+				started.countDown();
+				await(release);
+				return "before write";
+			}), executor));
+		}
+		started.await();
+
+		singleFlight.invalidateAll();
+
+		assertThat(singleFlight.load("a", () -> "after write")).isEqualTo("after write");
+		assertThat(singleFlight.load("b", () -> "after write")).isEqualTo("after write");
+		release.countDown();
+		for (final CompletableFuture<String> call : stale) {
+			assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+		}
+	}
+
+	private ArrayList<Future<String>> callConcurrently(final Supplier<String> loader) {
+		final var results = new ArrayList<Future<String>>();
+		for (int caller = 0; caller < CALLERS; caller++) {
+			results.add(executor.submit(() -> singleFlight.load("key", loader)));
+		}
+		return results;
+	}
+
+	private void awaitCoalesced(final int callers) throws InterruptedException {
+		final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count("coalesced") < callers && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(count("coalesced")).isEqualTo(callers);
+	}
+
+	private double count(final String result) {
+		return meterRegistry.get("product.loads").tag("operation", "test").tag("result", result).counter().count();
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
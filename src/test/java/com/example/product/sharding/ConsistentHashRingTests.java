@@ -0,0 +1,48 @@
+package com.example.product.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTests {
+
+	private static final int KEYS = 100_000;
+
+	@Test
+	void mapsEveryKeyToTheSameConfiguredShard() {
+		final var ring = new ConsistentHashRing(4);
+		final var again = new ConsistentHashRing(4);
+
+		assertThat(IntStream.range(0, KEYS).mapToObj(ConsistentHashRingTests::key))
+				.allMatch(key -> ring.shardOf(key) >= 0 && ring.shardOf(key) < 4)
+				.allMatch(key -> ring.shardOf(key) == again.shardOf(key));
+	}
+
+	@Test
+	void spreadsKeysEvenly() {
+		final var ring = new ConsistentHashRing(4);
+		final var counts = new int[4];
+		IntStream.range(0, KEYS).forEach(key -> counts[ring.shardOf(key(key))]++);
+
+		assertThat(IntStream.of(counts)).allMatch(count -> Math.abs(count - KEYS / 4) < KEYS / 4 / 4);
+	}
+
+	@Test
+	void addingAShardOnlyMovesKeysOntoIt() {
+		final var before = new ConsistentHashRing(4);
+		final var after = new ConsistentHashRing(5);
+
+		final var moved = IntStream.range(0, KEYS).mapToObj(ConsistentHashRingTests::key)
+				.filter(key -> before.shardOf(key) != after.shardOf(key)).toList();
+
+		assertThat(moved).allMatch(key -> after.shardOf(key) == 4);
+		assertThat((double) moved.size() / KEYS).isBetween(0.15, 0.25);
+	}
+
+	private static String key(final int key) {
+		return "SKU-" + key;
+	}
+
+}
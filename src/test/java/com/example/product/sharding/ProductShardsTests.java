@@ -0,0 +1,73 @@
+package com.example.product.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class ProductShardsTests {
+
+	@Test
+	void mergeInterleavesSortedLists() {
+		final var merged = ProductShards.merge(List.of(List.of(1, 4, 7), List.of(2, 5, 8), List.of(3, 6, 9)),
+				Comparator.naturalOrder(), 0, 10);
+
+		assertThat(merged).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+	}
+
+	@Test
+	void mergeSkipsAndLimitsInMergedOrder() {
+		final var merged = ProductShards.merge(List.of(List.of(1, 4, 7), List.of(2, 5, 8), List.of(3, 6, 9)),
+				Comparator.naturalOrder(), 4, 3);
+
+		assertThat(merged).containsExactly(5, 6, 7);
+	}
+
+	@Test
+	void mergeHandlesEmptyAndExhaustedLists() {
+		assertThat(ProductShards.merge(List.<List<Integer>>of(), Comparator.<Integer>naturalOrder(), 0, 5)).isEmpty();
+		assertThat(ProductShards.merge(List.of(List.of(), List.of(2), List.of()), Comparator.<Integer>naturalOrder(),
+				0, 5)).containsExactly(2);
+		assertThat(ProductShards.merge(List.of(List.of(1, 2), List.of(3)), Comparator.<Integer>naturalOrder(), 5, 5))
+				.isEmpty();
+	}
+
+	@Test
+	void mergeMatchesSortingTheConcatenation() {
+		final var random = new Random(42);
+		final Comparator<int[]> byValueThenId = Comparator.<int[]>comparingInt(row -> row[0])
+				.thenComparingInt(row -> row[1]);
+
+		for (int round = 0; round < 100; round++) {
+			final var lists = new ArrayList<List<int[]>>();
+			var id = 0;
+			for (int list = 0; list < 1 + random.nextInt(4); list++) {
+				final var rows = new ArrayList<int[]>();
+				for (int row = 0; row < random.nextInt(20); row++) {
+					rows.add(new int[] { random.nextInt(10), id++ });
+				}
+				rows.sort(byValueThenId);
+				lists.add(rows);
+			}
+			final var skip = random.nextInt(30);
+			final var limit = 1 + random.nextInt(20);
+
+			final var expected = lists.stream().flatMap(List::stream).sorted(byValueThenId).skip(skip).limit(limit)
+					.map(row -> row[1]).toList();
+			assertThat(ProductShards.merge(lists, byValueThenId, skip, limit).stream().map(row -> row[1]))
+					.containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	void idsCarryTheirShard() {
+		assertThat(Stream.of(0, 1, 7)).allMatch(shard -> ProductShards.shardOfId(ProductShards.firstId(shard)) == shard);
+		assertThat(ProductShards.shardOfId(999)).isZero();
+	}
+
+}
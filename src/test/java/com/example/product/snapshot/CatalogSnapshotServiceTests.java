@@ -0,0 +1,141 @@
+package com.example.product.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.example.product.models.Product;
+import com.example.product.sharding.ProductShards;
+import com.example.product.sharding.ShardRoutingDataSource;
+
+class CatalogSnapshotServiceTests {
+
+	@TempDir
+	private Path directory;
+
+	private ShardRoutingDataSource dataSource;
+	private List<JdbcTemplate> shards;
+
+	@BeforeEach
+	void createShards() {
+		final var name = UUID.randomUUID();
+		final var dataSources = new ArrayList<DataSource>();
+		shards = new ArrayList<>();
+		for (int shard = 0; shard < 2; shard++) {
+			final var shardDataSource = new DriverManagerDataSource(
+					"jdbc:h2:mem:snapshot_" + name + "_" + shard + ";DB_CLOSE_DELAY=-1", "sa", "");
+			new ResourceDatabasePopulator(new ClassPathResource("shard-schema.sql")).execute(shardDataSource);
+			dataSources.add(shardDataSource);
+			shards.add(new JdbcTemplate(shardDataSource));
+		}
+		dataSource = new ShardRoutingDataSource(dataSources, List.of());
+
+		insert(0, 1, "A-1");
+		insert(0, 2, "A-2");
+		insert(1, ProductShards.firstId(1), "B-1");
+	}
+
+	@Test
+	void restoresIntoEmptyShards() {
+		service("none").write();
+		shards.forEach(shard -> shard.update("DELETE FROM products"));
+
+		final var restored = new ArrayList<Product>();
+		assertThat(service("none").restore(restored::add)).isTrue();
+
+		assertThat(restored).extracting(Product::getSku).containsExactlyInAnyOrder("A-1", "A-2", "B-1");
+		assertThat(count(0)).isEqualTo(2);
+		assertThat(count(1)).isEqualTo(1);
+	}
+
+	@Test
+	void replacesTheSeededFirstShard() {
+		service("create-drop").write();
+		shards.get(0).update("UPDATE products SET name = 'seeded'");
+		shards.get(1).update("DELETE FROM products");
+
+		assertThat(service("create-drop").restore(product -> {
+		})).isTrue();
+
+		assertThat(shards.get(0).queryForList("SELECT name FROM products", String.class)).doesNotContain("seeded");
+		assertThat(count(1)).isEqualTo(1);
+	}
+
+	@Test
+	void refusesShardsWithNewerProducts() {
+		service("create-drop").write();
+		shards.get(1).update("DELETE FROM products");
+		insert(1, ProductShards.firstId(1) + 1, "B-2");
+
+		assertThat(service("create-drop").restore(product -> {
+		})).isFalse();
+
+		assertThat(count(0)).isEqualTo(2);
+		assertThat(shards.get(1).queryForList("SELECT sku FROM products", String.class)).containsExactly("B-2");
+	}
+
+	@Test
+	void replacesSeedDataWhoseNewestProductWasDeleted() {
+		// The catalog deleted the highest seeded id before the snapshot; the next startup seeds it again.
+		shards.get(0).update("DELETE FROM products WHERE id = 2");
+		service("create-drop").write();
+		insert(0, 2, "A-2");
+		shards.get(1).update("DELETE FROM products");
+
+		assertThat(service("create-drop").restore(product -> {
+		})).isTrue();
+
+		assertThat(shards.get(0).queryForList("SELECT sku FROM products", String.class)).containsExactly("A-1");
+		assertThat(count(1)).isEqualTo(1);
+	}
+
+	@Test
+	void refusesShardsThatWereNotSeededOnStartup() {
+		service("none").write();
+		shards.get(1).update("UPDATE products SET name = 'newer'");
+
+		assertThat(service("create-drop").restore(product -> {
+		})).isFalse();
+
+		assertThat(shards.get(1).queryForObject("SELECT name FROM products", String.class)).isEqualTo("newer");
+	}
+
+	@Test
+	void isOffWithoutAPath() {
+		final var service = new CatalogSnapshotService(dataSource, true, "", 10, "none");
+		service.write();
+
+		assertThat(service.restore(product -> {
+		})).isFalse();
+		assertThat(directory).isEmptyDirectory();
+	}
+
+	private CatalogSnapshotService service(final String ddlAuto) {
+		return new CatalogSnapshotService(dataSource, true, directory.resolve("catalog.snapshot").toString(), 10,
+				ddlAuto);
+	}
+
+	private void insert(final int shard, final long id, final String sku) {
+		shards.get(shard).update(
+				"INSERT INTO products (id, sku, name, description, price, tax_rate) VALUES (?, ?, ?, ?, ?, ?)", id,
+				sku, "Product " + sku, "Description of " + sku, 10.0, 5.0);
+	}
+
+	private long count(final int shard) {
+		return shards.get(shard).queryForObject("SELECT COUNT(*) FROM products", Long.class);
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.example.product.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.product.models.Product;
+
+class CatalogSnapshotTests {
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void roundTripsEveryColumn() throws IOException {
+		final var path = directory.resolve("catalog.snapshot");
+		final var builder = new CatalogSnapshot.Builder(2);
+		for (int row = 0; row < 3000; row++) {
+			builder.add(row + 1, "SKU-" + row, "Name " + row, row % 7 == 0 ? null : "Déscription ✓ " + row,
+					row * 1.5, row % 100);
+		}
+		builder.writeTo(path);
+
+		final var reader = CatalogSnapshot.open(path);
+		final var products = new ArrayList<Product>();
+		reader.forEach(products::add);
+
+		assertThat(reader.shardCount()).isEqualTo(2);
+		assertThat(reader.rows()).isEqualTo(3000);
+		assertThat(reader.createdAt()).isPositive();
+		assertThat(products).hasSize(3000);
+		final var product = products.get(42);
+		assertThat(product.getId()).isEqualTo(43);
+		assertThat(product.getSku()).isEqualTo("SKU-42");
+		assertThat(product.getName()).isEqualTo("Name 42");
+		assertThat(product.getDescription()).isNull();
+		assertThat(product.getPrice()).isEqualTo(63.0);
+		assertThat(product.getTaxRate()).isEqualTo(42.0);
+		assertThat(products.get(43).getDescription()).isEqualTo("Déscription ✓ 43");
+	}
+
+	@Test
+	void roundTripsAnEmptyCatalog() throws IOException {
+		final var path = directory.resolve("empty.snapshot");
+		new CatalogSnapshot.Builder(1).writeTo(path);
+
+		final var reader = CatalogSnapshot.open(path);
+		assertThat(reader.rows()).isZero();
+		reader.forEach(product -> {
+			throw new AssertionError("No rows expected");
+		});
+	}
+
+	@Test
+	void rejectsACorruptedFile() throws IOException {
+		final var path = snapshot();
+		final var bytes = Files.readAllBytes(path);
+		bytes[bytes.length / 2] ^= 0x01;
+		Files.write(path, bytes);
+
+		assertThatThrownBy(() -> CatalogSnapshot.open(path)).isInstanceOf(IOException.class)
+				.hasMessageContaining("checksum");
+	}
+
+	@Test
+	void rejectsAnotherVersion() throws IOException {
+		final var path = snapshot();
+		final var bytes = Files.readAllBytes(path);
+		ByteBuffer.wrap(bytes).putInt(4, CatalogSnapshot.VERSION + 1);
+		Files.write(path, bytes);
+
+		assertThatThrownBy(() -> CatalogSnapshot.open(path)).isInstanceOf(IOException.class)
+				.hasMessageContaining("version");
+	}
+
+	@Test
+	void rejectsTruncatedAndForeignFiles() throws IOException {
+		final var path = snapshot();
+		final var bytes = Files.readAllBytes(path);
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+		assertThatThrownBy(() -> CatalogSnapshot.open(path)).isInstanceOf(IOException.class)
+				.hasMessageContaining("Truncated");
+
+		Files.writeString(path, "not a snapshot at all, just some text");
+		assertThatThrownBy(() -> CatalogSnapshot.open(path)).isInstanceOf(IOException.class)
+				.hasMessageContaining("Not a catalog snapshot");
+	}
+
+	private Path snapshot() throws IOException {
+		final var path = directory.resolve("catalog.snapshot");
+		new CatalogSnapshot.Builder(1).add(1, "SKU-1", "Name", "Description", 10, 5).writeTo(path);
+		return path;
+	}
+
+}
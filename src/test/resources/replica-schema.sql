@@ -0,0 +1,6 @@
+-- Stands in for a lagging replica: replica connections read their own copy of products, and every other table
+-- from the primary's schema.
+CREATE SCHEMA IF NOT EXISTS replica;
+CREATE TABLE IF NOT EXISTS replica.products (id bigint NOT NULL, description varchar(255), name varchar(255), price float(53) NOT NULL, sku varchar(255) NOT NULL, tax_rate float(53) NOT NULL, PRIMARY KEY (id));
+SET SCHEMA replica;
+SET SCHEMA_SEARCH_PATH replica, public;